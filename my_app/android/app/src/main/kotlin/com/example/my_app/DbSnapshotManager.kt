@@ -0,0 +1,365 @@
+package com.example.my_app
+
+import android.content.Context
+import android.database.Cursor
+import android.database.sqlite.SQLiteDatabase
+import android.util.Log
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.zip.CRC32
+
+// 이 앱 SQLite 데이터베이스의 증분 스냅샷 및 빠른 복원
+//
+// 페이지 단위 CRC32 인덱스와 함께 스냅샷을 두 슬롯에 번갈아 저장하고, 바뀐 페이지만 기록하므로
+// 플래시 쓰기량이 작음. 검증(quick_check)을 통과한 최신 슬롯이 항상 "마지막 정상 스냅샷"으로 남음.
+// 데이터 디렉토리는 이 앱만 접근할 수 있으므로, 와치독은 시점만 정하고(안정 실행 중 스냅샷 요청,
+// 시작 중 크래시 반복 시 복원 요청과 함께 시작) 실제 기록과 복원은 여기서 수행함.
+// 복원은 현재 파일이 손상된(quick_check 실패) 데이터베이스에만 적용해 최근 변경을 불필요하게 잃지 않음.
+class DbSnapshotManager(context: Context) {
+    private val dataDir = File(context.applicationInfo.dataDir)
+    private val snapshotDir = File(context.filesDir, SNAPSHOT_DIR)
+    private val executor: ExecutorService = Executors.newSingleThreadExecutor()
+
+    // 스냅샷 슬롯 인덱스 (슬롯의 스냅샷 파일 내용과 항상 일치하는 페이지별 CRC 보관)
+    private class Index {
+        var valid = false
+        var generation = 0L
+        var changeCounter = 0
+        var fileSize = 0L
+        var lastModified = 0L
+        var pageSize = 0
+        var crcs = IntArray(0)
+    }
+
+    // SQLite 파일 헤더 중 스냅샷에 필요한 값
+    private class Header(val pageSize: Int, val changeCounter: Int)
+
+    // 모든 데이터베이스 스냅샷을 백그라운드에서 갱신 (와치독 요청 시)
+    fun snapshotAllAsync() {
+        executor.execute {
+            for (path in DATABASES) {
+                try {
+                    snapshot(File(dataDir, path), snapshotName(path))
+                } catch (e: Exception) {
+                    Log.e(TAG, "스냅샷 중 오류 ($path): ${e.message}", e)
+                }
+            }
+        }
+    }
+
+    // 손상된 데이터베이스만 마지막 정상 스냅샷으로 복원 (데이터베이스를 열기 전에 호출, 동기 실행)
+    fun restoreAll(): Int {
+        val start = System.currentTimeMillis()
+        var restored = 0
+        for (path in DATABASES) {
+            try {
+                if (restore(File(dataDir, path), snapshotName(path))) restored++
+            } catch (e: Exception) {
+                Log.e(TAG, "복원 중 오류 ($path): ${e.message}", e)
+            }
+        }
+        Log.w(TAG, "손상된 데이터베이스 ${restored}개 복원 완료 (${System.currentTimeMillis() - start}ms)")
+        return restored
+    }
+
+    fun shutdown() {
+        executor.shutdown()
+    }
+
+    private fun snapshotName(path: String): String = path.replace('/', '_')
+
+    // 바뀐 페이지만 비활성 슬롯에 기록하고, 일관성이 확인되면 그 슬롯을 최신으로 표시
+    @Throws(IOException::class)
+    private fun snapshot(source: File, name: String) {
+        if (!source.isFile) return
+
+        val header = readHeader(source) ?: return
+        if (isTransactionActive(source)) return
+
+        val slots = arrayOf(readIndex(name, 0), readIndex(name, 1))
+        val current = newestValidSlot(slots)
+        if (current >= 0) {
+            val latest = slots[current]!!
+            if (latest.changeCounter == header.changeCounter && latest.fileSize == source.length()
+                && latest.lastModified == source.lastModified()) {
+                return // 변경 없음
+            }
+        }
+
+        // 최신 정상 슬롯은 보존하고 다른 슬롯에 기록
+        val target = if (current == 0) 1 else 0
+        val previous = slots[target]?.takeIf { it.pageSize == header.pageSize }
+
+        if (!snapshotDir.exists() && !snapshotDir.mkdirs()) return
+        // 기록 도중 중단되면 이 슬롯은 복원에 쓰이지 않고 다음 기록 시 전체 페이지를 다시 씀
+        writeIndex(name, target, Index())
+
+        val fileSize = source.length()
+        val lastModified = source.lastModified()
+        val pageCount = (fileSize / header.pageSize).toInt()
+        val crcs = IntArray(pageCount)
+        var written = 0
+
+        val page = ByteArray(header.pageSize)
+        val crc = CRC32()
+        val snapFile = snapshotFile(name, target)
+        RandomAccessFile(source, "r").use { input ->
+            RandomAccessFile(snapFile, "rw").use { output ->
+                for (i in 0 until pageCount) {
+                    input.readFully(page)
+                    crc.reset()
+                    crc.update(page, 0, page.size)
+                    crcs[i] = crc.value.toInt()
+
+                    if (previous == null || i >= previous.crcs.size || previous.crcs[i] != crcs[i]) {
+                        output.seek(i.toLong() * header.pageSize)
+                        output.write(page)
+                        written++
+                    }
+                }
+                output.setLength(pageCount.toLong() * header.pageSize)
+                output.fd.sync()
+            }
+        }
+
+        val index = Index()
+        index.generation = (if (current >= 0) slots[current]!!.generation else 0L) + 1
+        index.changeCounter = header.changeCounter
+        index.fileSize = fileSize
+        index.lastModified = lastModified
+        index.pageSize = header.pageSize
+        index.crcs = crcs
+
+        // 읽는 동안 쓰기가 있었으면 CRC 만 갱신하고 무효 상태로 두어 다음 요청에 다시 시도
+        val after = readHeader(source)
+        val consistent = after != null && after.changeCounter == header.changeCounter &&
+            source.length() == fileSize && !isTransactionActive(source)
+        index.valid = consistent && quickCheck(snapFile)
+        writeIndex(name, target, index)
+
+        Log.i(TAG, "스냅샷 $name: $written/$pageCount 페이지 기록, " +
+            if (index.valid) "정상" else "무효 (다음 요청에 재시도)")
+    }
+
+    // 대상 파일이 손상되었으면 스냅샷과 다른 페이지만 덮어써서 복원 (없는 파일은 만들지 않음)
+    @Throws(IOException::class)
+    private fun restore(target: File, name: String): Boolean {
+        if (!target.isFile) {
+            Log.i(TAG, "복원 대상 없음 - 건너뜀: $name")
+            return false
+        }
+        // 중단된 트랜잭션의 핫 저널은 손상이 아니므로 먼저 SQLite 가 롤백하도록 쓰기 모드로 열어 검사
+        if (quickCheck(target, isTransactionActive(target))) {
+            Log.i(TAG, "무결성 정상 - 복원하지 않음: $name")
+            return false
+        }
+
+        val slots = arrayOf(readIndex(name, 0), readIndex(name, 1))
+        val current = newestValidSlot(slots)
+        if (current < 0) return false
+
+        val index = slots[current]!!
+
+        val snapPage = ByteArray(index.pageSize)
+        val livePage = ByteArray(index.pageSize)
+        val crc = CRC32()
+        var written = 0
+
+        RandomAccessFile(snapshotFile(name, current), "r").use { input ->
+            RandomAccessFile(target, "rw").use { output ->
+                val liveLength = output.length()
+                for (i in index.crcs.indices) {
+                    val offset = i.toLong() * index.pageSize
+
+                    if (offset + index.pageSize <= liveLength) {
+                        output.seek(offset)
+                        output.readFully(livePage)
+                        crc.reset()
+                        crc.update(livePage, 0, livePage.size)
+                        if (crc.value.toInt() == index.crcs[i]) continue
+                    }
+
+                    input.seek(offset)
+                    input.readFully(snapPage)
+                    output.seek(offset)
+                    output.write(snapPage)
+                    written++
+                }
+                output.setLength(index.crcs.size.toLong() * index.pageSize)
+                output.fd.sync()
+            }
+        }
+
+        // 남은 저널이 복원된 페이지를 되돌리지 않도록 삭제
+        deleteSidecar(target, "-journal")
+        deleteSidecar(target, "-wal")
+        deleteSidecar(target, "-shm")
+
+        Log.w(TAG, "복원 $name: $written/${index.crcs.size} 페이지 (세대 ${index.generation})")
+        return true
+    }
+
+    private fun readHeader(file: File): Header? {
+        val buf = ByteArray(100)
+        try {
+            FileInputStream(file).use { input ->
+                var read = 0
+                while (read < buf.size) {
+                    val n = input.read(buf, read, buf.size - read)
+                    if (n < 0) return null
+                    read += n
+                }
+            }
+        } catch (e: IOException) {
+            return null
+        }
+
+        for (i in SQLITE_MAGIC.indices) {
+            if (buf[i] != SQLITE_MAGIC[i]) return null
+        }
+
+        val rawPageSize = ((buf[16].toInt() and 0xff) shl 8) or (buf[17].toInt() and 0xff)
+        val pageSize = if (rawPageSize == 1) 65536 else rawPageSize
+        val changeCounter = ((buf[24].toInt() and 0xff) shl 24) or ((buf[25].toInt() and 0xff) shl 16) or
+            ((buf[26].toInt() and 0xff) shl 8) or (buf[27].toInt() and 0xff)
+        if (pageSize < 512 || (pageSize and (pageSize - 1)) != 0) return null
+        return Header(pageSize, changeCounter)
+    }
+
+    // 진행 중인 트랜잭션(핫 저널) 또는 체크포인트되지 않은 WAL 이 있는지 확인
+    private fun isTransactionActive(db: File): Boolean {
+        val wal = File(db.path + "-wal")
+        if (wal.exists() && wal.length() > 0) return true
+
+        val journal = File(db.path + "-journal")
+        if (!journal.exists() || journal.length() == 0L) return false
+
+        // PERSIST 모드에서는 커밋 후 저널 헤더가 0으로 지워짐
+        return try {
+            FileInputStream(journal).use { input ->
+                val head = ByteArray(8)
+                val n = input.read(head)
+                (0 until maxOf(n, 0)).any { head[it].toInt() != 0 }
+            }
+        } catch (e: IOException) {
+            true
+        }
+    }
+
+    // recover 이면 쓰기 모드로 열어 핫 저널 롤백 후 검사 (읽기 전용으로는 핫 저널이 있는 파일을 열 수 없음)
+    private fun quickCheck(file: File, recover: Boolean = false): Boolean {
+        var db: SQLiteDatabase? = null
+        var cursor: Cursor? = null
+        return try {
+            val mode = if (recover) SQLiteDatabase.OPEN_READWRITE else SQLiteDatabase.OPEN_READONLY
+            db = SQLiteDatabase.openDatabase(file.path, null, mode or SQLiteDatabase.NO_LOCALIZED_COLLATORS)
+            cursor = db.rawQuery("PRAGMA quick_check", null)
+            cursor.moveToFirst() && "ok".equals(cursor.getString(0), ignoreCase = true)
+        } catch (e: Exception) {
+            Log.w(TAG, "무결성 검사 실패 (${file.name}): ${e.message}")
+            false
+        } finally {
+            cursor?.close()
+            db?.close()
+        }
+    }
+
+    private fun newestValidSlot(slots: Array<Index?>): Int {
+        var newest = -1
+        for (i in slots.indices) {
+            val slot = slots[i] ?: continue
+            if (slot.valid && (newest < 0 || slot.generation > slots[newest]!!.generation)) {
+                newest = i
+            }
+        }
+        return newest
+    }
+
+    private fun snapshotFile(name: String, slot: Int) = File(snapshotDir, "$name.$slot.snap")
+
+    private fun indexFile(name: String, slot: Int) = File(snapshotDir, "$name.$slot.idx")
+
+    private fun readIndex(name: String, slot: Int): Index? {
+        val file = indexFile(name, slot)
+        if (!file.exists()) return null
+
+        return try {
+            DataInputStream(FileInputStream(file)).use { input ->
+                if (input.readInt() != INDEX_MAGIC || input.readInt() != INDEX_VERSION) return null
+
+                val index = Index()
+                index.valid = input.readBoolean()
+                index.generation = input.readLong()
+                index.changeCounter = input.readInt()
+                index.fileSize = input.readLong()
+                index.lastModified = input.readLong()
+                index.pageSize = input.readInt()
+                index.crcs = IntArray(input.readInt()) { input.readInt() }
+                index
+            }
+        } catch (e: IOException) {
+            Log.w(TAG, "스냅샷 인덱스 읽기 실패 (${file.name}): ${e.message}")
+            null
+        }
+    }
+
+    // 임시 파일에 쓰고 이름을 바꿔 인덱스를 원자적으로 교체
+    @Throws(IOException::class)
+    private fun writeIndex(name: String, slot: Int, index: Index) {
+        val file = indexFile(name, slot)
+        val tmp = File(file.path + ".tmp")
+
+        FileOutputStream(tmp).use { fos ->
+            val output = DataOutputStream(fos)
+            output.writeInt(INDEX_MAGIC)
+            output.writeInt(INDEX_VERSION)
+            output.writeBoolean(index.valid)
+            output.writeLong(index.generation)
+            output.writeInt(index.changeCounter)
+            output.writeLong(index.fileSize)
+            output.writeLong(index.lastModified)
+            output.writeInt(index.pageSize)
+            output.writeInt(index.crcs.size)
+            for (crc in index.crcs) {
+                output.writeInt(crc)
+            }
+            output.flush()
+            fos.fd.sync()
+        }
+
+        if (!tmp.renameTo(file)) {
+            throw IOException("인덱스 교체 실패: ${file.name}")
+        }
+    }
+
+    private fun deleteSidecar(db: File, suffix: String) {
+        val file = File(db.path + suffix)
+        if (file.exists() && !file.delete()) {
+            Log.w(TAG, "파일 삭제 실패: ${file.name}")
+        }
+    }
+
+    companion object {
+        private const val TAG = "DbSnapshotManager"
+        private const val SNAPSHOT_DIR = "db_snapshots"
+
+        // 앱 데이터 디렉토리 기준 데이터베이스 경로 (각 database helper 의 openDatabase 경로)
+        private val DATABASES = arrayOf(
+            "databases/remote_control.db",
+            "databases/pc_control.db",
+            "databases/my_app/database/projector_control.db",
+            "app_flutter/database/pdu_control.db"
+        )
+
+        private const val INDEX_MAGIC = 0x52435344 // "RCSD"
+        private const val INDEX_VERSION = 1
+        private val SQLITE_MAGIC = "SQLite format 3\u0000".toByteArray(Charsets.US_ASCII)
+    }
+}
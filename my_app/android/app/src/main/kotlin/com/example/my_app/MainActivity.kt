@@ -1,10 +1,18 @@
 package com.example.my_app
 
+import android.app.ActivityManager
+import android.content.BroadcastReceiver
+import android.content.Context
 import android.content.Intent
+import android.content.IntentFilter
+import android.os.Build
 import android.os.Bundle
 import android.os.Handler
+import android.os.HandlerThread
 import android.os.Looper
+import android.os.Process
 import android.util.Log
+import androidx.annotation.RequiresApi
 import io.flutter.embedding.android.FlutterActivity
 import io.flutter.embedding.engine.FlutterEngine
 import io.flutter.plugin.common.MethodChannel
@@ -24,6 +32,28 @@ class MainActivity : FlutterActivity() {
     // 메소드 채널 설정
     private val CHANNEL = "com.example.my_app/mac_address"
     
+    // 와치독 연동 채널 (스케줄 미러 전달 및 와치독 알람 스케줄 실행)
+    private val WATCHDOG_CHANNEL = "com.example.my_app/watchdog"
+    private val WATCHDOG_PACKAGE = "com.rcscontrol.watchdog.rcs_watchdog"
+    private val ACTION_UPDATE_SCHEDULES = "com.rcscontrol.watchdog.action.UPDATE_SCHEDULES"
+    private val ACTION_UPDATE_DEVICE_IDENTITY = "com.rcscontrol.watchdog.action.UPDATE_DEVICE_IDENTITY"
+    private val ACTION_REPORT_EXIT_INFO = "com.rcscontrol.watchdog.action.REPORT_EXIT_INFO"
+    private val ACTION_UPDATE_CONFIG = "com.rcscontrol.watchdog.action.UPDATE_CONFIG"
+    private val ACTION_HEARTBEAT = "com.rcscontrol.watchdog.action.HEARTBEAT"
+    private val ACTION_SCHEDULE_EXECUTED = "com.rcscontrol.watchdog.action.SCHEDULE_EXECUTED"
+    private val ACTION_EXECUTE_SCHEDULE = "com.example.my_app.action.EXECUTE_SCHEDULE"
+    private val ACTION_RECOVERY_KILL = "com.example.my_app.action.RECOVERY_KILL"
+    private val ACTION_SNAPSHOT_DATABASES = "com.example.my_app.action.SNAPSHOT_DATABASES"
+    private val PERMISSION_WATCHDOG_BRIDGE = "com.rcscontrol.permission.WATCHDOG_BRIDGE" // 같은 키로 서명된 앱만 송수신
+    private val EXIT_LOG_TAIL_LINES = 300 // 종료 사유와 함께 보내는 직전 프로세스 로그 줄 수
+    private val EXIT_LOG_TAIL_MAX_CHARS = 64 * 1024 // 브로드캐스트 크기 제한
+    private var watchdogChannel: MethodChannel? = null
+    private var scheduleReceiver: BroadcastReceiver? = null
+    private var recoveryKillReceiver: BroadcastReceiver? = null
+    private var recoveryKillThread: HandlerThread? = null
+    private var snapshotReceiver: BroadcastReceiver? = null
+    private var dbSnapshotManager: DbSnapshotManager? = null
+    
     override fun configureFlutterEngine(flutterEngine: FlutterEngine) {
         super.configureFlutterEngine(flutterEngine)
         
@@ -39,6 +69,252 @@ class MainActivity : FlutterActivity() {
                 }
             }
         }
+        
+        // 와치독 연동 채널 설정
+        watchdogChannel = MethodChannel(flutterEngine.dartExecutor.binaryMessenger, WATCHDOG_CHANNEL).apply {
+            setMethodCallHandler { call, result ->
+                when (call.method) {
+                    "pushSchedules" -> {
+                        val schedules = call.argument<String>("schedules") ?: ""
+                        result.success(pushSchedulesToWatchdog(schedules))
+                    }
+                    "updateWatchdogConfig" -> {
+                        val values = call.arguments as? Map<*, *>
+                        if (values == null || values.isEmpty()) {
+                            result.error("INVALID_ARGUMENT", "설정 값이 필요합니다", null)
+                        } else {
+                            result.success(pushConfigToWatchdog(values))
+                        }
+                    }
+                    else -> {
+                        result.notImplemented()
+                    }
+                }
+            }
+        }
+        registerScheduleReceiver()
+        registerRecoveryKillReceiver()
+        registerSnapshotReceiver()
+    }
+    
+    // 스케줄 변경 시 와치독에 스케줄 미러 전달 ("id|kind|action|HH:mm|days" 를 ';' 로 연결)
+    private fun pushSchedulesToWatchdog(schedules: String): Boolean {
+        return try {
+            val intent = Intent(ACTION_UPDATE_SCHEDULES)
+            intent.setPackage(WATCHDOG_PACKAGE)
+            intent.putExtra("schedules", schedules)
+            sendBroadcast(intent, PERMISSION_WATCHDOG_BRIDGE)
+            Log.i(TAG, "와치독에 스케줄 미러 전달됨")
+            true
+        } catch (e: Exception) {
+            Log.e(TAG, "와치독 스케줄 전달 실패: ${e.message}", e)
+            false
+        }
+    }
+    
+    // 와치독 감시 설정 변경 전달 (extras 키 = 설정 키, 형식 변환과 범위 보정은 와치독에서 처리)
+    private fun pushConfigToWatchdog(values: Map<*, *>): Boolean {
+        return try {
+            val intent = Intent(ACTION_UPDATE_CONFIG)
+            intent.setPackage(WATCHDOG_PACKAGE)
+            for ((key, value) in values) {
+                val name = key as? String ?: continue
+                when (value) {
+                    is Boolean -> intent.putExtra(name, value)
+                    is Int -> intent.putExtra(name, value.toLong())
+                    is Long -> intent.putExtra(name, value)
+                    is Number -> intent.putExtra(name, value.toLong())
+                    is String -> intent.putExtra(name, value)
+                }
+            }
+            sendBroadcast(intent, PERMISSION_WATCHDOG_BRIDGE)
+            Log.i(TAG, "와치독에 설정 변경 전달됨: ${values.keys}")
+            true
+        } catch (e: Exception) {
+            Log.e(TAG, "와치독 설정 전달 실패: ${e.message}", e)
+            false
+        }
+    }
+    
+    // 와치독에 장비 MAC 전달 (정전 복구 시 장비별 시작 시각 분산에 사용)
+    private fun pushDeviceIdentityToWatchdog() {
+        try {
+            val intent = Intent(ACTION_UPDATE_DEVICE_IDENTITY)
+            intent.setPackage(WATCHDOG_PACKAGE)
+            intent.putExtra("mac_address", getRealMacAddress())
+            sendBroadcast(intent, PERMISSION_WATCHDOG_BRIDGE)
+        } catch (e: Exception) {
+            Log.e(TAG, "와치독 장비 식별자 전달 실패: ${e.message}", e)
+        }
+    }
+    
+    // 와치독에 이 앱의 마지막 종료 사유와 종료 직전 로그 전달
+    // (와치독은 다른 앱의 종료 기록과 logcat 을 직접 조회할 수 없음, logcat 읽기는 백그라운드에서)
+    private fun pushExitInfoToWatchdog() {
+        Thread {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+                try {
+                    sendLastExitInfo()
+                } catch (e: Exception) {
+                    Log.e(TAG, "와치독 종료 사유 전달 실패: ${e.message}", e)
+                }
+            }
+        }.start()
+    }
+    
+    @RequiresApi(Build.VERSION_CODES.R)
+    private fun sendLastExitInfo() {
+        val am = getSystemService(Context.ACTIVITY_SERVICE) as ActivityManager
+        val latest = am.getHistoricalProcessExitReasons(null, 0, 1).firstOrNull() ?: return
+        
+        val intent = Intent(ACTION_REPORT_EXIT_INFO)
+        intent.setPackage(WATCHDOG_PACKAGE)
+        intent.putExtra("reason", latest.reason)
+        intent.putExtra("timestamp", latest.timestamp)
+        intent.putExtra("description", latest.description)
+        intent.putExtra("log_tail", readLogTail(latest.pid))
+        sendBroadcast(intent, PERMISSION_WATCHDOG_BRIDGE)
+        Log.i(TAG, "와치독에 마지막 종료 사유 전달: reason=${latest.reason}")
+    }
+    
+    // 직전 프로세스의 마지막 logcat 줄 (앱은 READ_LOGS 없이 자신의 로그를 읽을 수 있음, 읽지 못하면 빈 문자열)
+    private fun readLogTail(pid: Int): String {
+        return try {
+            val process = Runtime.getRuntime().exec(arrayOf(
+                "logcat", "-d", "-v", "threadtime", "--pid=$pid", "-t", EXIT_LOG_TAIL_LINES.toString()))
+            try {
+                process.inputStream.bufferedReader().use { it.readText() }.takeLast(EXIT_LOG_TAIL_MAX_CHARS)
+            } finally {
+                process.destroy()
+            }
+        } catch (e: Exception) {
+            Log.e(TAG, "로그 읽기 실패: ${e.message}")
+            ""
+        }
+    }
+    
+    // 와치독이 정시에 보내는 스케줄 실행 요청을 Flutter로 전달하고, 실행되면 확인 응답
+    // (응답이 없으면 와치독이 대기열에 남겨 다시 전달)
+    private fun registerScheduleReceiver() {
+        if (scheduleReceiver != null) return
+        
+        val receiver = object : BroadcastReceiver() {
+            override fun onReceive(context: Context, intent: Intent) {
+                val scheduleId = intent.getStringExtra("schedule_id") ?: return
+                val scheduledAt = intent.getLongExtra("scheduled_at", 0L)
+                val event = mapOf(
+                    "scheduleId" to scheduleId,
+                    "kind" to intent.getStringExtra("kind"),
+                    "action" to intent.getStringExtra("action"),
+                    "scheduledAt" to scheduledAt
+                )
+                Log.i(TAG, "와치독 스케줄 실행 요청 수신: $event")
+                
+                val channel = watchdogChannel
+                if (channel == null) {
+                    Log.w(TAG, "Flutter 채널 준비 전 - 와치독이 다시 전달")
+                    return
+                }
+                channel.invokeMethod("executeScheduledEvent", event, object : MethodChannel.Result {
+                    override fun success(result: Any?) {
+                        // Flutter 가 실제로 실행한 시각 (이미 실행된 스케줄이면 그때 시각)
+                        val executedAt = (result as? Number)?.toLong() ?: System.currentTimeMillis()
+                        sendScheduleAckToWatchdog(scheduleId, scheduledAt, executedAt)
+                    }
+                    
+                    override fun error(errorCode: String, errorMessage: String?, errorDetails: Any?) {
+                        Log.e(TAG, "와치독 스케줄 실행 실패: $errorCode $errorMessage")
+                    }
+                    
+                    override fun notImplemented() {
+                        Log.w(TAG, "Flutter 스케줄 실행 핸들러 미등록 - 와치독이 다시 전달")
+                    }
+                })
+            }
+        }
+        
+        // 서명 권한을 가진 앱(와치독)이 보낸 요청만 수신
+        val filter = IntentFilter(ACTION_EXECUTE_SCHEDULE)
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            registerReceiver(receiver, filter, PERMISSION_WATCHDOG_BRIDGE, null, Context.RECEIVER_EXPORTED)
+        } else {
+            registerReceiver(receiver, filter, PERMISSION_WATCHDOG_BRIDGE, null)
+        }
+        scheduleReceiver = receiver
+    }
+    
+    // 와치독에 스케줄 실행 확인 응답 전달
+    private fun sendScheduleAckToWatchdog(scheduleId: String, scheduledAt: Long, executedAt: Long) {
+        try {
+            val intent = Intent(ACTION_SCHEDULE_EXECUTED)
+            intent.setPackage(WATCHDOG_PACKAGE)
+            intent.putExtra("schedule_id", scheduleId)
+            intent.putExtra("scheduled_at", scheduledAt)
+            intent.putExtra("executed_at", executedAt)
+            sendBroadcast(intent, PERMISSION_WATCHDOG_BRIDGE)
+        } catch (e: Exception) {
+            Log.e(TAG, "와치독 스케줄 실행 확인 전달 실패: ${e.message}", e)
+        }
+    }
+    
+    // 와치독이 응답 없음(하트비트 중단)을 감지하면 보내는 종료 요청 처리
+    // 메인 스레드가 멈춰 있어도 받을 수 있도록 별도 스레드에서 수신
+    private fun registerRecoveryKillReceiver() {
+        if (recoveryKillReceiver != null) return
+        
+        val thread = HandlerThread("RecoveryKillReceiver")
+        thread.start()
+        
+        val receiver = object : BroadcastReceiver() {
+            override fun onReceive(context: Context, intent: Intent) {
+                // 멈춘 위치를 다음 시작 시 와치독에 보내는 로그에 남김
+                val stack = Looper.getMainLooper().thread.stackTrace.joinToString("\n") { "    at $it" }
+                Log.w(TAG, "와치독 응답 없음 복구 요청 수신: 프로세스 종료, 메인 스레드 스택:\n$stack")
+                Process.killProcess(Process.myPid())
+            }
+        }
+        
+        val filter = IntentFilter(ACTION_RECOVERY_KILL)
+        val threadHandler = Handler(thread.looper)
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            registerReceiver(receiver, filter, PERMISSION_WATCHDOG_BRIDGE, threadHandler, Context.RECEIVER_EXPORTED)
+        } else {
+            registerReceiver(receiver, filter, PERMISSION_WATCHDOG_BRIDGE, threadHandler)
+        }
+        recoveryKillReceiver = receiver
+        recoveryKillThread = thread
+    }
+    
+    // 와치독이 안정 실행 중에 보내는 DB 스냅샷 갱신 요청 처리 (기록은 백그라운드 스레드에서)
+    private fun registerSnapshotReceiver() {
+        if (snapshotReceiver != null) return
+        
+        val receiver = object : BroadcastReceiver() {
+            override fun onReceive(context: Context, intent: Intent) {
+                val manager = dbSnapshotManager ?: DbSnapshotManager(applicationContext).also { dbSnapshotManager = it }
+                manager.snapshotAllAsync()
+            }
+        }
+        
+        val filter = IntentFilter(ACTION_SNAPSHOT_DATABASES)
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            registerReceiver(receiver, filter, PERMISSION_WATCHDOG_BRIDGE, null, Context.RECEIVER_EXPORTED)
+        } else {
+            registerReceiver(receiver, filter, PERMISSION_WATCHDOG_BRIDGE, null)
+        }
+        snapshotReceiver = receiver
+    }
+    
+    // 와치독에 하트비트 전달 (0 이면 정상 종료 - 응답 없음으로 판단하지 않도록)
+    private fun sendHeartbeatToWatchdog(timestamp: Long) {
+        try {
+            val intent = Intent(ACTION_HEARTBEAT)
+            intent.setPackage(WATCHDOG_PACKAGE)
+            intent.putExtra("timestamp", timestamp)
+            sendBroadcast(intent, PERMISSION_WATCHDOG_BRIDGE)
+        } catch (e: Exception) {
+            Log.e(TAG, "와치독 하트비트 전달 실패: ${e.message}")
+        }
     }
     
     // XHApi를 사용하여 실제 MAC 주소 가져오기
@@ -55,6 +331,16 @@ class MainActivity : FlutterActivity() {
     }
     
     override fun onCreate(savedInstanceState: Bundle?) {
+        // 와치독이 시작 중 크래시 반복으로 복원을 요청한 경우, Flutter 엔진이 데이터베이스를 열기 전에
+        // 손상된 데이터베이스만 마지막 정상 스냅샷으로 복원
+        if (intent.getBooleanExtra("rcs_recovery_restore", false)) {
+            try {
+                DbSnapshotManager(applicationContext).restoreAll()
+            } catch (e: Exception) {
+                Log.e(TAG, "데이터베이스 복원 중 오류: ${e.message}", e)
+            }
+        }
+        
         super.onCreate(savedInstanceState)
         
         // 홈 앱으로 설정되는 것 방지
@@ -67,12 +353,21 @@ class MainActivity : FlutterActivity() {
             return
         }
         
+        // 와치독이 반복된 메모리 부족 종료 후 정리를 요청한 경우 캐시 정리
+        if (intent.getBooleanExtra("rcs_recovery_cleanup", false)) {
+            clearCacheForRecovery()
+        }
+        
         // 상태 파일 초기화
         updateStatusFile()
         
         // 상태 파일 주기적 업데이트 시작
         startStatusUpdates()
         
+        // 와치독에 장비 식별자와 마지막 종료 사유 전달
+        pushDeviceIdentityToWatchdog()
+        pushExitInfoToWatchdog()
+        
         Log.i(TAG, "메인 앱 초기화 완료: 앱 실행")
     }
     
@@ -80,6 +375,43 @@ class MainActivity : FlutterActivity() {
         // 업데이트 중지
         stopStatusUpdates()
         
+        // 스케줄 실행 리시버 해제
+        scheduleReceiver?.let {
+            try {
+                unregisterReceiver(it)
+            } catch (e: Exception) {
+                Log.e(TAG, "스케줄 리시버 해제 중 오류: ${e.message}")
+            }
+        }
+        scheduleReceiver = null
+        
+        // 복구 종료 리시버 해제
+        recoveryKillReceiver?.let {
+            try {
+                unregisterReceiver(it)
+            } catch (e: Exception) {
+                Log.e(TAG, "복구 종료 리시버 해제 중 오류: ${e.message}")
+            }
+        }
+        recoveryKillReceiver = null
+        recoveryKillThread?.quitSafely()
+        recoveryKillThread = null
+        
+        // DB 스냅샷 리시버 해제
+        snapshotReceiver?.let {
+            try {
+                unregisterReceiver(it)
+            } catch (e: Exception) {
+                Log.e(TAG, "DB 스냅샷 리시버 해제 중 오류: ${e.message}")
+            }
+        }
+        snapshotReceiver = null
+        dbSnapshotManager?.shutdown()
+        dbSnapshotManager = null
+        
+        // 와치독 하트비트 중지 알림
+        sendHeartbeatToWatchdog(0L)
+        
         // 상태 파일 삭제
         try {
             val file = File(filesDir, STATUS_FILE_NAME)
@@ -94,6 +426,16 @@ class MainActivity : FlutterActivity() {
         super.onDestroy()
     }
     
+    // 캐시 디렉토리 정리 (데이터베이스는 건드리지 않음)
+    private fun clearCacheForRecovery() {
+        try {
+            cacheDir.listFiles()?.forEach { it.deleteRecursively() }
+            Log.i(TAG, "와치독 요청으로 캐시 정리 완료")
+        } catch (e: Exception) {
+            Log.e(TAG, "캐시 정리 중 오류: ${e.message}")
+        }
+    }
+    
     // 백 버튼 처리 - 앱을 종료할 수 있도록 함
     @Deprecated("Deprecated in Java")
     override fun onBackPressed() {
@@ -132,7 +474,8 @@ class MainActivity : FlutterActivity() {
             // 1. 앱 내부 저장소에 파일 생성
             val internalFile = File(filesDir, STATUS_FILE_NAME)
             var fos = FileOutputStream(internalFile)
-            val data = "RCS_MAIN_APP_RUNNING:${System.currentTimeMillis()}"
+            val now = System.currentTimeMillis()
+            val data = "RCS_MAIN_APP_RUNNING:$now"
             fos.write(data.toByteArray())
             fos.close()
             
@@ -167,6 +510,9 @@ class MainActivity : FlutterActivity() {
             } catch (e: Exception) {
                 // 와치독 앱 디렉토리 접근 실패는 무시 (권한 문제일 수 있음)
             }
+            
+            // 4. 와치독에 하트비트 전달 (와치독이 수신 시각을 기록해 응답 없음 감지에 사용)
+            sendHeartbeatToWatchdog(now)
         } catch (e: Exception) {
             Log.e(TAG, "상태 파일 업데이트 중 오류: ${e.message}")
         }
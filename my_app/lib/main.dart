@@ -32,6 +32,7 @@ import 'services/projector_service.dart';
 import 'services/projector_schedule_service.dart';
 import 'services/pdu_schedule_service.dart';
 import 'services/auth_service.dart';
+import 'services/watchdog_bridge.dart';
 
 // 앱 전역 navigatorKey 추가
 final GlobalKey<NavigatorState> navigatorKey = GlobalKey<NavigatorState>();
@@ -136,6 +137,9 @@ Future<void> _startMainApp() async {
     // 스케줄 서비스 시작
     scheduleService.start();
     
+    // 와치독 연동 시작 (스케줄 미러 전달, 와치독 알람 스케줄 실행)
+    WatchdogBridge().start();
+    
     // 서버 인스턴스 생성 및 시작
     print('서버 시작 시도');
     final server = RemoteControlServer();
@@ -1,6 +1,7 @@
 import 'package:shelf/shelf.dart';
 import 'package:shelf_router/shelf_router.dart';
 import '../services/pdu_service.dart';
+import '../services/watchdog_bridge.dart';
 import 'dart:convert';
 
 class PduRoutes {
@@ -206,6 +207,7 @@ class PduRoutes {
         print('[PDU] 저장할 스케줄 데이터: $scheduleData');
         
         final id = await _service.db.insertPDUSchedule(scheduleData);
+        WatchdogBridge().schedulesChanged();
         
         final result = jsonEncode({
           'success': true, 
@@ -356,6 +358,7 @@ class PduRoutes {
         // 새 스케줄 생성
         final id = await _service.db.insertPDUSchedule(newSchedule);
         print('새 스케줄 생성 완료: ID $id, 활성화: $isActive');
+        WatchdogBridge().schedulesChanged();
         
       } catch (e) {
         print('PDU 스케줄 활성화 토글 중 오류: $e');
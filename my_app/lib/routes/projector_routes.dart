@@ -2,6 +2,7 @@ import 'package:shelf/shelf.dart';
 import 'package:shelf_router/shelf_router.dart';
 import '../services/projector_service.dart';
 import '../database/database_helper.dart';
+import '../services/watchdog_bridge.dart';
 import 'dart:convert';
 
 class ProjectorRoutes {
@@ -299,6 +300,7 @@ class ProjectorRoutes {
       );
       
       print('새 스케줄 추가됨, ID: $id, 활성화 상태: $isActive');
+      WatchdogBridge().schedulesChanged();
 
       return Response.ok(
         jsonEncode({
@@ -366,6 +368,7 @@ class ProjectorRoutes {
         );
         
         print('기본 스케줄 생성됨, ID: $id, 활성화 상태: $isActive');
+        WatchdogBridge().schedulesChanged();
         
         return Response.ok(
           jsonEncode({
@@ -387,6 +390,7 @@ class ProjectorRoutes {
       );
       
       print('스케줄 활성화 상태 업데이트: $updatedCount개 행 업데이트됨, 상태: $isActive');
+      WatchdogBridge().schedulesChanged();
       
       return Response.ok(
         jsonEncode({
@@ -4,6 +4,7 @@ import 'package:shelf/shelf.dart';
 import 'package:shelf_router/shelf_router.dart';
 import 'package:path/path.dart' as path;
 import 'package:path_provider/path_provider.dart';
+import '../services/watchdog_bridge.dart';
 
 class SettingsRoutes {
   Router get router {
@@ -20,6 +21,9 @@ class SettingsRoutes {
     
     // 룸 장비 할당 저장
     router.post('/room-devices', _saveRoomDevices);
+    
+    // 와치독 감시 설정 변경
+    router.post('/watchdog', _updateWatchdogConfig);
 
     return router;
   }
@@ -214,4 +218,59 @@ class SettingsRoutes {
       );
     }
   }
-} 
\ No newline at end of file
+
+  // 와치독 감시 설정 변경 (예: {"check_interval_ms": 30000, "hang_timeout_ms": 180000})
+  // 감시 대상 패키지는 와치독 화면에서만 변경 가능하며, 범위를 벗어난 값은 와치독이 보정함
+  Future<Response> _updateWatchdogConfig(Request request) async {
+    try {
+      print('[SETTINGS] 와치독 설정 변경 요청');
+      
+      final body = await request.readAsString();
+      final data = jsonDecode(body);
+      
+      // 데이터 검증
+      if (data is! Map<String, dynamic> || data.isEmpty) {
+        return Response.badRequest(
+          body: jsonEncode({
+            'success': false,
+            'message': '변경할 설정 값이 필요합니다.'
+          }),
+          headers: {'Content-Type': 'application/json'},
+        );
+      }
+      
+      final values = Map<String, dynamic>.from(data)
+        ..removeWhere((key, value) => value is! bool && value is! num && value is! String);
+      
+      final sent = await WatchdogBridge().updateConfig(values);
+      if (!sent) {
+        return Response.internalServerError(
+          body: jsonEncode({
+            'success': false,
+            'message': '와치독에 설정을 전달하지 못했습니다.'
+          }),
+          headers: {'Content-Type': 'application/json'},
+        );
+      }
+      
+      print('[SETTINGS] 와치독 설정 변경 전달 완료: ${values.keys.join(', ')}');
+      
+      return Response.ok(
+        jsonEncode({
+          'success': true,
+          'message': '와치독 설정 변경이 전달되었습니다.'
+        }),
+        headers: {'Content-Type': 'application/json'},
+      );
+    } catch (e) {
+      print('[SETTINGS] 와치독 설정 변경 오류: $e');
+      return Response.internalServerError(
+        body: jsonEncode({
+          'success': false,
+          'message': '와치독 설정 변경 중 오류가 발생했습니다: $e'
+        }),
+        headers: {'Content-Type': 'application/json'},
+      );
+    }
+  }
+}
@@ -3,6 +3,7 @@ import 'dart:convert';
 import 'dart:io';
 import 'package:flutter/foundation.dart';
 import '../database/pc_database_helper.dart';
+import 'watchdog_bridge.dart';
 
 class PcService {
   static final PcService _instance = PcService._internal();
@@ -584,6 +585,7 @@ class PcService {
       
       // 새 스케줄 추가
       final id = await _db.insertPCSchedule(data);
+      WatchdogBridge().schedulesChanged();
       
       return jsonEncode({
         'success': true,
@@ -620,6 +622,7 @@ class PcService {
       final bool isActive = data['is_active'] == true || data['is_active'] == 1;
       
       await _db.updatePCScheduleStatus(id, isActive);
+      WatchdogBridge().schedulesChanged();
       
       return jsonEncode({
         'success': true,
@@ -663,8 +666,9 @@ class PcService {
       // 마지막 실행 시간을 저장하는 로직 (중복 실행 방지)
       final lastExecuted = _getLastExecutedSchedule();
       
-      // Wake on LAN 실행 (켜기)
-      if (wakeOnTime == currentTime && lastExecuted['wake'] != currentTime) {
+      // Wake on LAN 실행 (켜기) - 와치독 알람이나 ScheduleService 가 이미 실행했으면 건너뜀
+      if (wakeOnTime == currentTime && lastExecuted['wake'] != currentTime &&
+          WatchdogBridge().claim('${WatchdogBridge.sourcePc}.on', WatchdogBridge.scheduledToday(currentTime))) {
         debugPrint('스케줄에 따라 모든 PC Wake on LAN 실행: $currentTime');
         
         // 마지막 실행 시간 업데이트
@@ -712,7 +716,8 @@ class PcService {
       }
       
       // 종료 명령 실행 (끄기)
-      if (shutdownTime == currentTime && lastExecuted['shutdown'] != currentTime) {
+      if (shutdownTime == currentTime && lastExecuted['shutdown'] != currentTime &&
+          WatchdogBridge().claim('${WatchdogBridge.sourcePc}.off', WatchdogBridge.scheduledToday(currentTime))) {
         debugPrint('스케줄에 따라 모든 PC 종료 실행: $currentTime');
         
         // 마지막 실행 시간 업데이트
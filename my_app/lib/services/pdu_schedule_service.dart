@@ -2,6 +2,7 @@ import 'dart:async';
 import 'package:flutter/material.dart';
 import '../database/pdu_database_helper.dart';
 import 'pdu_service.dart';
+import 'watchdog_bridge.dart';
 
 class PDUScheduleService {
   final PDUDatabaseHelper _db = PDUDatabaseHelper();
@@ -34,6 +35,9 @@ class PDUScheduleService {
       _checkSchedules(timer);
     });
     
+    // 와치독에 현재 스케줄 전달
+    WatchdogBridge().schedulesChanged();
+    
     // 시작과 동시에 한 번 실행
     print('[PDU-SCHEDULE] 초기 스케줄 확인 실행');
     _checkSchedules(null);
@@ -91,7 +95,9 @@ class PDUScheduleService {
       // 마지막 실행 시간 확인 (중복 실행 방지)
       
       // 켜기 시간 검사
-      if (powerOnTime == currentTime && _lastExecutedScheduleTimes['on'] != currentTime) {
+      // 와치독 알람이나 다른 타이머가 이미 실행한 스케줄은 건너뜀
+      if (powerOnTime == currentTime && _lastExecutedScheduleTimes['on'] != currentTime &&
+          WatchdogBridge().claim('${WatchdogBridge.sourcePduCommon}.on', WatchdogBridge.scheduledToday(currentTime))) {
         print('[PDU-SCHEDULE] 스케줄에 따라 모든 PDU 전원 켜기 시작: $currentTime');
         
         // 마지막 실행 시간 업데이트
@@ -102,7 +108,8 @@ class PDUScheduleService {
       }
       
       // 끄기 시간 검사
-      if (powerOffTime == currentTime && _lastExecutedScheduleTimes['off'] != currentTime) {
+      if (powerOffTime == currentTime && _lastExecutedScheduleTimes['off'] != currentTime &&
+          WatchdogBridge().claim('${WatchdogBridge.sourcePduCommon}.off', WatchdogBridge.scheduledToday(currentTime))) {
         print('[PDU-SCHEDULE] 스케줄에 따라 모든 PDU 전원 끄기 시작: $currentTime');
         
         // 마지막 실행 시간 업데이트
@@ -2,6 +2,7 @@ import 'dart:convert';
 import 'dart:io';
 import 'dart:async';
 import '../database/pdu_database_helper.dart';
+import 'watchdog_bridge.dart';
 import 'package:http/http.dart' as http;
 import 'package:web_socket_channel/web_socket_channel.dart';
 
@@ -559,6 +560,7 @@ class PduService {
     
     try {
       final id = await db.insertPDUSchedule(data);
+      WatchdogBridge().schedulesChanged();
       return jsonEncode({'success': true, 'schedule_id': id});
     } catch (e) {
       return jsonEncode({'success': false, 'error': e.toString()});
@@ -3,6 +3,7 @@ import 'dart:convert';
 
 import '../database/database_helper.dart';
 import '../services/projector_service.dart';
+import 'watchdog_bridge.dart';
 
 class ProjectorScheduleService {
   final DatabaseHelper _db = DatabaseHelper();
@@ -24,6 +25,9 @@ class ProjectorScheduleService {
       _checkSchedule();
     });
     
+    // 와치독에 현재 스케줄 전달
+    WatchdogBridge().schedulesChanged();
+    
     // 서비스 시작시 즉시 한 번 실행
     _checkSchedule();
   }
@@ -73,13 +77,15 @@ class ProjectorScheduleService {
         return;
       }
       
-      // 시간에 따른 동작 수행 - 중복 실행 방지 로직 추가
-      if (schedule['power_on_time'] == currentTime && _lastOnTime != currentTime) {
+      // 시간에 따른 동작 수행 - 중복 실행 방지 로직 추가 (와치독 알람이나 다른 타이머가 실행한 스케줄 포함)
+      if (schedule['power_on_time'] == currentTime && _lastOnTime != currentTime &&
+          WatchdogBridge().claim('${WatchdogBridge.sourceProjector}.on', WatchdogBridge.scheduledToday(currentTime))) {
         print('프로젝터 전원 켜기 시간입니다!');
         await _executeProjectorCommand('on');
         // 마지막 실행 시간 기록
         _lastOnTime = currentTime;
-      } else if (schedule['power_off_time'] == currentTime && _lastOffTime != currentTime) {
+      } else if (schedule['power_off_time'] == currentTime && _lastOffTime != currentTime &&
+          WatchdogBridge().claim('${WatchdogBridge.sourceProjector}.off', WatchdogBridge.scheduledToday(currentTime))) {
         print('프로젝터 전원 끄기 시간입니다!');
         await _executeProjectorCommand('off');
         // 마지막 실행 시간 기록
@@ -8,6 +8,7 @@ import '../database/pc_database_helper.dart';
 import 'projector_service.dart';
 import 'pdu_service.dart';
 import 'pc_service.dart';
+import 'watchdog_bridge.dart';
 
 class ScheduleService {
   static final ScheduleService _instance = ScheduleService._internal();
@@ -29,6 +30,9 @@ class ScheduleService {
     // 30초마다 스케줄 체크
     _timer = Timer.periodic(const Duration(seconds: 30), _checkSchedules);
     debugPrint('스케줄 서비스가 시작되었습니다. (실행 주기: 30초)');
+    
+    // 와치독에 현재 스케줄 전달
+    WatchdogBridge().schedulesChanged();
   }
 
   // 서비스 중지
@@ -62,10 +66,15 @@ class ScheduleService {
         // 현재 요일이 스케줄에 포함되어 있는지 확인
         if (!days.split(',').contains(currentDay)) continue;
 
+        // 와치독 알람이나 다른 타이머가 이미 실행한 스케줄은 건너뜀
         if (currentTime == powerOnTime) {
-          await _executeSchedule(deviceType, 'power_on');
+          if (WatchdogBridge().claim('$deviceType.on', WatchdogBridge.scheduledToday(powerOnTime))) {
+            await _executeSchedule(deviceType, 'power_on');
+          }
         } else if (currentTime == powerOffTime) {
-          await _executeSchedule(deviceType, 'power_off');
+          if (WatchdogBridge().claim('$deviceType.off', WatchdogBridge.scheduledToday(powerOffTime))) {
+            await _executeSchedule(deviceType, 'power_off');
+          }
         }
       }
       
@@ -114,9 +123,11 @@ class ScheduleService {
 
       // 시간 체크 및 명령 실행
       if (currentTime == powerOnTime) {
+        if (!WatchdogBridge().claim('${WatchdogBridge.sourcePduCommon}.on', WatchdogBridge.scheduledToday(powerOnTime))) return;
         debugPrint('PDU 전원 켜기 시간입니다! 시간: $currentTime');
         await _executePDUCommandForAll('power_on');
       } else if (currentTime == powerOffTime) {
+        if (!WatchdogBridge().claim('${WatchdogBridge.sourcePduCommon}.off', WatchdogBridge.scheduledToday(powerOffTime))) return;
         debugPrint('PDU 전원 끄기 시간입니다! 시간: $currentTime');
         await _executePDUCommandForAll('power_off');
       }
@@ -215,14 +226,16 @@ class ScheduleService {
         return;
       }
 
-      // WOL 시간 체크 및 명령 실행
-      if (wakeOnTime != null && currentTime == wakeOnTime) {
+      // WOL 시간 체크 및 명령 실행 (와치독 알람이나 PC 서비스 스케줄러가 이미 실행했으면 건너뜀)
+      if (wakeOnTime != null && currentTime == wakeOnTime &&
+          WatchdogBridge().claim('${WatchdogBridge.sourcePc}.on', WatchdogBridge.scheduledToday(wakeOnTime))) {
         print('PC Wake On LAN 시간입니다! 시간: $currentTime');
         await _executePCWakeAction(0);
       }
       
       // 종료 시간 체크 및 명령 실행
-      if (shutdownTime != null && currentTime == shutdownTime) {
+      if (shutdownTime != null && currentTime == shutdownTime &&
+          WatchdogBridge().claim('${WatchdogBridge.sourcePc}.off', WatchdogBridge.scheduledToday(shutdownTime))) {
         print('PC 종료 시간입니다! 시간: $currentTime');
         await _executePCShutdownAction(0);
       }
@@ -285,6 +298,32 @@ class ScheduleService {
     }
   }
 
+  // 와치독 알람으로 도착한 스케줄 실행 (메인 앱이 죽어 있던 동안 놓친 스케줄 재생 포함)
+  Future<void> executeScheduledEvent(String scheduleId, String kind, String action, DateTime scheduledAt) async {
+    try {
+      if (!WatchdogBridge().claim(scheduleId, scheduledAt)) return;
+
+      final powerAction = action == 'on' ? 'power_on' : 'power_off';
+      final delay = DateTime.now().difference(scheduledAt);
+      debugPrint('와치독 스케줄 실행: $scheduleId ($kind $powerAction, 지연 ${delay.inSeconds}초)');
+
+      if (scheduleId.startsWith('${WatchdogBridge.sourcePduCommon}.')) {
+        await _executePDUCommandForAll(powerAction);
+      } else if (scheduleId.startsWith('${WatchdogBridge.sourcePc}.')) {
+        // 모든 PC 켜기(WOL) 또는 종료
+        if (action == 'on') {
+          await _executePCWakeAction(0);
+        } else {
+          await _executePCShutdownAction(0);
+        }
+      } else {
+        await _executeSchedule(kind, powerAction);
+      }
+    } catch (e) {
+      debugPrint('와치독 스케줄 실행 중 오류 발생: $e');
+    }
+  }
+
   // 스케줄 로그 기록
   Future<void> _logScheduleExecution(String deviceType, String action, String result) async {
     try {
@@ -308,6 +347,7 @@ class ScheduleService {
       }
 
       await _db.updateSchedule(deviceType, powerOnTime, powerOffTime, days);
+      WatchdogBridge().schedulesChanged();
       return '{"success": true, "message": "스케줄이 성공적으로 설정되었습니다."}';
     } catch (e) {
       return '{"success": false, "error": "$e"}';
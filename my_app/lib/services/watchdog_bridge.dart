@@ -0,0 +1,160 @@
+import 'dart:async';
+import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
+import '../database/database_helper.dart';
+import '../database/pdu_database_helper.dart';
+import '../database/pc_database_helper.dart';
+import 'schedule_service.dart';
+
+// 와치독 연동 - 전원 스케줄 미러 전달 및 와치독 알람으로 도착한 스케줄 실행
+//
+// 미러 항목 형식: "id|kind|action|HH:mm|days" 를 ';' 로 연결
+//   id 는 "<스케줄 출처>.<on|off>" (예: projector.on, pdu_common.off) 이고,
+//   같은 id 와 예정 시각으로 30초 타이머와 와치독 알람이 한 번만 실행되도록 중복을 막음
+class WatchdogBridge {
+  static final WatchdogBridge _instance = WatchdogBridge._internal();
+  static const MethodChannel _channel = MethodChannel('com.example.my_app/watchdog');
+
+  // 스케줄 출처 (schedules 테이블의 device_type 행, pdu_schedules 공통 스케줄, pc_schedules 공통 스케줄)
+  static const String sourceProjector = 'projector';
+  static const String sourcePdu = 'pdu';
+  static const String sourcePduCommon = 'pdu_common';
+  static const String sourcePc = 'pc';
+
+  final DatabaseHelper _db = DatabaseHelper();
+  final PDUDatabaseHelper _pduDb = PDUDatabaseHelper();
+  final PCDatabaseHelper _pcDb = PCDatabaseHelper();
+
+  // 실행한 스케줄 (id@예정 시각 -> 실행 시각)
+  final Map<String, int> _executed = {};
+  Timer? _pushTimer;
+  bool _started = false;
+
+  // 싱글톤 패턴
+  factory WatchdogBridge() => _instance;
+  WatchdogBridge._internal();
+
+  // 와치독 이벤트 수신 시작 및 현재 스케줄 전달
+  void start() {
+    if (_started) return;
+    _started = true;
+
+    _channel.setMethodCallHandler((call) async {
+      if (call.method == 'executeScheduledEvent') {
+        final event = Map<String, dynamic>.from(call.arguments as Map);
+        final scheduleId = event['scheduleId'] as String? ?? '';
+        final scheduledAt = DateTime.fromMillisecondsSinceEpoch(event['scheduledAt'] as int? ?? 0);
+        await ScheduleService().executeScheduledEvent(
+          scheduleId,
+          event['kind'] as String? ?? '',
+          event['action'] as String? ?? '',
+          scheduledAt,
+        );
+        // 실제 실행 시각을 돌려주면 네이티브가 와치독에 확인 응답 (와치독은 응답을 받을 때까지 다시 전달)
+        return executedAt(scheduleId, scheduledAt);
+      }
+      throw MissingPluginException();
+    });
+
+    schedulesChanged();
+  }
+
+  // 스케줄이 저장되면 호출 - 연달아 저장되는 경우를 묶어 한 번만 전달
+  void schedulesChanged() {
+    _pushTimer?.cancel();
+    _pushTimer = Timer(const Duration(seconds: 1), () {
+      pushSchedules();
+    });
+  }
+
+  // 활성화된 전원 스케줄을 모아 와치독에 전달
+  Future<bool> pushSchedules() async {
+    try {
+      final entries = <String>[];
+
+      for (final schedule in await _db.getAllSchedules()) {
+        final deviceType = schedule['device_type']?.toString();
+        if (deviceType != sourceProjector && deviceType != sourcePdu) continue;
+        _addEntries(entries, deviceType!, deviceType, schedule);
+      }
+
+      final pduSchedules = await _pduDb.getPDUSchedule();
+      if (pduSchedules.isNotEmpty) {
+        _addEntries(entries, sourcePduCommon, 'pdu', pduSchedules.first);
+      }
+
+      // PC 스케줄은 켜기(WOL)/종료 시각 컬럼 이름이 다름
+      final pcSchedules = await _pcDb.getPCSchedule();
+      if (pcSchedules.isNotEmpty) {
+        final schedule = pcSchedules.first;
+        _addEntries(entries, sourcePc, 'pc', {
+          'is_active': schedule['is_active'],
+          'days': schedule['days'],
+          'power_on_time': schedule['wake_on_time'],
+          'power_off_time': schedule['shutdown_time'],
+        });
+      }
+
+      final result = await _channel.invokeMethod('pushSchedules', {'schedules': entries.join(';')});
+      debugPrint('와치독 스케줄 미러 전달: ${entries.length}개 항목');
+      return result == true;
+    } catch (e) {
+      debugPrint('와치독 스케줄 미러 전달 오류: $e');
+      return false;
+    }
+  }
+
+  void _addEntries(List<String> entries, String source, String kind, Map<String, dynamic> schedule) {
+    if (schedule['is_active'] != 1) return;
+
+    final days = schedule['days']?.toString() ?? '';
+    final powerOnTime = schedule['power_on_time']?.toString() ?? '';
+    final powerOffTime = schedule['power_off_time']?.toString() ?? '';
+    if (days.isEmpty) return;
+
+    if (powerOnTime.isNotEmpty) {
+      entries.add('$source.on|$kind|on|$powerOnTime|$days');
+    }
+    if (powerOffTime.isNotEmpty) {
+      entries.add('$source.off|$kind|off|$powerOffTime|$days');
+    }
+  }
+
+  // 와치독 감시 설정 변경 (키: check_interval_ms, hang_timeout_ms 등, 와치독이 범위 보정 후 바로 적용)
+  Future<bool> updateConfig(Map<String, dynamic> values) async {
+    try {
+      final result = await _channel.invokeMethod('updateWatchdogConfig', values);
+      debugPrint('와치독 설정 변경 전달: ${values.keys.join(', ')}');
+      return result == true;
+    } catch (e) {
+      debugPrint('와치독 설정 변경 전달 오류: $e');
+      return false;
+    }
+  }
+
+  // 스케줄 id 와 예정 시각으로 실행 권한 확보 (이미 실행했으면 false)
+  bool claim(String scheduleId, DateTime scheduledAt) {
+    final now = DateTime.now().millisecondsSinceEpoch;
+    _executed.removeWhere((key, executedAt) => now - executedAt > const Duration(days: 1).inMilliseconds);
+
+    final key = '$scheduleId@${scheduledAt.millisecondsSinceEpoch}';
+    if (_executed.containsKey(key)) {
+      debugPrint('이미 실행된 스케줄 건너뜀: $key');
+      return false;
+    }
+    _executed[key] = now;
+    return true;
+  }
+
+  // 스케줄 id 와 예정 시각으로 실행한 시각 (실행하지 않았으면 null)
+  int? executedAt(String scheduleId, DateTime scheduledAt) {
+    return _executed['$scheduleId@${scheduledAt.millisecondsSinceEpoch}'];
+  }
+
+  // 오늘 HH:mm 의 예정 시각 (30초 타이머가 claim 에 사용)
+  static DateTime scheduledToday(String time) {
+    final now = DateTime.now();
+    final parts = time.split(':');
+    return DateTime(now.year, now.month, now.day, int.parse(parts[0].trim()), int.parse(parts[1].trim()));
+  }
+}
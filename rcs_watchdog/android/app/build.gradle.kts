@@ -53,4 +53,5 @@ flutter {
 dependencies {
     implementation("androidx.work:work-runtime-ktx:2.7.1")
     implementation("androidx.multidex:multidex:2.0.1")
+    testImplementation("junit:junit:4.13.2")
 }
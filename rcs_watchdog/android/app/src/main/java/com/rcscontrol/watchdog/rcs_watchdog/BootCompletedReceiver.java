@@ -13,7 +13,7 @@ import android.util.Log;
  */
 public class BootCompletedReceiver extends BroadcastReceiver {
     private static final String TAG = "BootReceiver";
-    private static final int BOOT_DELAY = 30 * 1000; // 부팅 후 30초 지연
+    static final int BOOT_DELAY = 30 * 1000; // 부팅 후 기본 30초 지연 (설정으로 변경 가능)
 
     @Override
     public void onReceive(Context context, Intent intent) {
@@ -26,7 +26,8 @@ public class BootCompletedReceiver extends BroadcastReceiver {
             Intent.ACTION_MY_PACKAGE_REPLACED.equals(action)) {
             
             try {
-                Log.i(TAG, "부팅 감지됨 - " + (BOOT_DELAY / 1000) + "초 후 와치독 서비스 시작 예정");
+                long bootDelay = WatchdogConfig.get(context).bootDelayMs;
+                Log.i(TAG, "부팅 감지됨 - " + (bootDelay / 1000) + "초 후 와치독 서비스 시작 예정");
                 
                 // 지연 후 서비스 시작 (시스템이 안정화될 시간 확보)
                 new Handler(Looper.getMainLooper()).postDelayed(() -> {
@@ -45,7 +46,7 @@ public class BootCompletedReceiver extends BroadcastReceiver {
                     } catch (Exception e) {
                         Log.e(TAG, "지연 후 서비스 시작 실패: " + e.getMessage(), e);
                     }
-                }, BOOT_DELAY);
+                }, bootDelay);
                 
                 Log.i(TAG, "부팅 후 서비스 시작 타이머 설정 완료");
             } catch (Exception e) {
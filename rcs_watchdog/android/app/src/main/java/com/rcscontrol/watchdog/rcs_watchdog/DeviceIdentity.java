@@ -0,0 +1,60 @@
+package com.rcscontrol.watchdog.rcs_watchdog;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.provider.Settings;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+
+/**
+ * 장비 고유 식별자 조회
+ *
+ * 우선순위: 메인 앱이 XHApi 로 읽어 전달한 이더넷 MAC > /sys 의 eth0 MAC > ANDROID_ID
+ */
+public class DeviceIdentity {
+    private static final String TAG = "DeviceIdentity";
+    private static final String PREFS_NAME = "watchdog_prefs";
+    private static final String KEY_DEVICE_MAC = "device_mac";
+    private static final String EMPTY_MAC = "00:00:00:00:00:00";
+
+    /**
+     * 메인 앱이 전달한 MAC 저장 (재부팅 직후 메인 앱 실행 전에도 사용할 수 있도록 보관)
+     */
+    public static void saveMacAddress(Context context, String mac) {
+        if (!isValidMac(mac)) {
+            Log.w(TAG, "유효하지 않은 MAC 무시: " + mac);
+            return;
+        }
+
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                .edit().putString(KEY_DEVICE_MAC, mac).apply();
+        Log.i(TAG, "장비 MAC 저장됨: " + mac);
+    }
+
+    public static String get(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String mac = prefs.getString(KEY_DEVICE_MAC, null);
+        if (isValidMac(mac)) return mac;
+
+        mac = readSysMac("eth0");
+        if (isValidMac(mac)) return mac;
+
+        String androidId = Settings.Secure.getString(context.getContentResolver(), Settings.Secure.ANDROID_ID);
+        return androidId != null ? androidId : "";
+    }
+
+    private static String readSysMac(String iface) {
+        try (BufferedReader reader = new BufferedReader(new FileReader("/sys/class/net/" + iface + "/address"))) {
+            String line = reader.readLine();
+            return line != null ? line.trim() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static boolean isValidMac(String mac) {
+        return mac != null && !mac.trim().isEmpty() && !EMPTY_MAC.equals(mac.trim());
+    }
+}
@@ -0,0 +1,60 @@
+package com.rcscontrol.watchdog.rcs_watchdog;
+
+import java.util.Locale;
+
+/**
+ * 정전 복구 후 장비 전체가 동시에 메인 앱을 시작하지 않도록 장비별 시작 지연을 계산
+ *
+ * 지연 시간은 장비 고유 식별자(이더넷 MAC 등)의 해시로 정해지므로 재부팅해도 항상 같고,
+ * 장비 전체의 복구 시간이 설정한 한도 안에 들어오도록 구간 안에 고르게 분산됨.
+ * 장비 수에 따른 복구 한도와 네트워크 부하 검증은 단위 테스트(FleetStaggerTest)에서 수행함.
+ */
+public final class FleetStagger {
+    static final long DEFAULT_RECOVERY_BOUND = 180 * 1000L; // 부팅 후 장비 전체 복구 한도 3분
+    static final long APP_START_BUDGET = 15 * 1000L;        // 메인 앱 시작 및 장비 첫 조회에 걸리는 시간
+    static final long BOOT_COMPLETED_BUDGET = 30 * 1000L;   // 부팅부터 BOOT_COMPLETED 수신까지 걸리는 시간
+    static final long BOOT_DETECTION_LIMIT = 5 * 60 * 1000L; // 부팅 후 이 시간 안에 서비스가 시작되면 부팅 직후로 간주
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private FleetStagger() {
+    }
+
+    /**
+     * 복구 한도에서 BOOT_COMPLETED 까지의 시간, 부팅 지연, 앱 시작 시간을 뺀 분산 구간
+     */
+    static long windowFor(long recoveryBound, long bootDelay) {
+        return Math.max(0, recoveryBound - BOOT_COMPLETED_BUDGET - bootDelay - APP_START_BUDGET);
+    }
+
+    /**
+     * 메인 앱 첫 시작 시각 (부팅 기준 elapsedRealtime)
+     * 서비스 시작 시각이 아닌 부팅 시각에 맞춰, 장비마다 다른 BOOT_COMPLETED 시각이 지연에 더해지지 않도록 함
+     * (부팅이 예산보다 느려 그 시각이 이미 지났으면 서비스 시작 즉시)
+     */
+    static long launchAt(long serviceStartedAt, long bootDelay, long offset) {
+        return Math.max(serviceStartedAt, BOOT_COMPLETED_BUDGET + bootDelay + offset);
+    }
+
+    /**
+     * 장비 식별자에 대한 결정적 시작 지연 (0 이상 window 미만)
+     */
+    static long offsetFor(String identity, long window) {
+        if (window <= 0 || identity == null) return 0;
+
+        // 구분자와 대소문자 차이를 제거해 같은 MAC 은 항상 같은 값이 되도록 함
+        String normalized = identity.toLowerCase(Locale.ROOT).replaceAll("[^0-9a-z]", "");
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash ^= normalized.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        // 연속된 MAC 도 고르게 퍼지도록 상위 비트까지 섞음
+        hash ^= (hash >>> 33);
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= (hash >>> 33);
+
+        return Math.floorMod(hash, window);
+    }
+}
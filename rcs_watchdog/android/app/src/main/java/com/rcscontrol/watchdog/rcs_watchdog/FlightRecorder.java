@@ -0,0 +1,66 @@
+package com.rcscontrol.watchdog.rcs_watchdog;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * 최근 구조화 이벤트를 보관하는 고정 크기 링 버퍼
+ *
+ * 미리 할당한 배열에 시각, 이벤트, 값 두 개만 기록하므로 평상시 기록에는 객체 생성이 없음.
+ * 장애 발생 시 freeze() 로 그 시점까지의 내용을 복사해 덤프에 사용함.
+ */
+public class FlightRecorder {
+    private final long[] times;
+    private final WatchdogLog.Event[] events;
+    private final long[] values1;
+    private final long[] values2;
+    private int next = 0;
+    private int size = 0;
+
+    public FlightRecorder(int capacity) {
+        times = new long[capacity];
+        events = new WatchdogLog.Event[capacity];
+        values1 = new long[capacity];
+        values2 = new long[capacity];
+    }
+
+    public synchronized void record(WatchdogLog.Event event, long value1, long value2) {
+        times[next] = System.currentTimeMillis();
+        events[next] = event;
+        values1[next] = value1;
+        values2[next] = value2;
+        next = (next + 1) % times.length;
+        if (size < times.length) size++;
+    }
+
+    /**
+     * 현재 내용을 오래된 순서의 텍스트로 고정 (장애 덤프용, 이때만 문자열 생성)
+     */
+    public String freeze() {
+        long[] t;
+        WatchdogLog.Event[] e;
+        long[] v1;
+        long[] v2;
+        int count;
+        int start;
+
+        synchronized (this) {
+            count = size;
+            start = (next - size + times.length) % times.length;
+            t = times.clone();
+            e = events.clone();
+            v1 = values1.clone();
+            v2 = values2.clone();
+        }
+
+        SimpleDateFormat format = new SimpleDateFormat("MM-dd HH:mm:ss.SSS", Locale.US);
+        StringBuilder sb = new StringBuilder(count * 64);
+        for (int i = 0; i < count; i++) {
+            int idx = (start + i) % t.length;
+            sb.append(format.format(new Date(t[idx]))).append(' ')
+                    .append(WatchdogLog.format(e[idx], v1[idx], v2[idx])).append('\n');
+        }
+        return sb.toString();
+    }
+}
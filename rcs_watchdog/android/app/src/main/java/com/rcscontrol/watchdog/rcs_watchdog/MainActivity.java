@@ -13,7 +13,9 @@ import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.MethodChannel.MethodCallHandler;
 import io.flutter.plugin.common.MethodChannel.Result;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 단순화된 메인 액티비티
@@ -21,7 +23,6 @@ import java.util.List;
 public class MainActivity extends FlutterActivity {
     private static final String TAG = "WatchdogActivity";
     private static final String CHANNEL = "com.rcscontrol.watchdog/app_control";
-    private static final String MAIN_APP_PACKAGE = "com.example.my_app"; // RCS 컨트롤 앱 패키지명
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -89,6 +90,31 @@ public class MainActivity extends FlutterActivity {
                                 }
                                 break;
                                 
+                            case "getScheduleSkewStats":
+                                // 스케줄 실행 지연 통계
+                                result.success(ScheduleMirror.getSkewStats(MainActivity.this));
+                                break;
+                                
+                            case "getConfig":
+                                // 현재 와치독 설정
+                                result.success(WatchdogConfig.get(MainActivity.this).toMap());
+                                break;
+                                
+                            case "updateConfig":
+                                // 와치독 설정 갱신 (서비스 재시작 없이 바로 적용)
+                                Map<String, Object> values = call.arguments();
+                                if (values != null) {
+                                    result.success(WatchdogConfig.update(MainActivity.this, values));
+                                } else {
+                                    result.error("INVALID_ARGUMENT", "설정 값이 필요합니다", null);
+                                }
+                                break;
+                                
+                            case "getRecoveryStats":
+                                // 종료 사유별 복구 통계
+                                result.success(RecoveryManager.getStats(MainActivity.this));
+                                break;
+                                
                             default:
                                 result.notImplemented();
                                 break;
@@ -157,11 +183,10 @@ public class MainActivity extends FlutterActivity {
      */
     private boolean setAutoStartEnabledSetting(boolean enabled) {
         try {
-            // 설정 저장
-            SharedPreferences prefs = getSharedPreferences("watchdog_prefs", MODE_PRIVATE);
-            prefs.edit().putBoolean("auto_start_enabled", enabled).apply();
+            // 설정 저장 (실행 중인 서비스에는 설정 리스너로 바로 적용됨)
+            WatchdogConfig.update(this, Collections.singletonMap(WatchdogConfig.KEY_AUTO_START_ENABLED, enabled));
             
-            // 서비스에 설정 변경 알림
+            // 서비스에 설정 변경 알림 (서비스가 실행 중이 아니면 시작)
             Intent intent = new Intent(this, WatchdogService.class);
             intent.setAction("UPDATE_AUTO_START");
             intent.putExtra("auto_start_enabled", enabled);
@@ -185,7 +210,7 @@ public class MainActivity extends FlutterActivity {
      */
     private boolean startMainApp() {
         try {
-            Intent launchIntent = getPackageManager().getLaunchIntentForPackage(MAIN_APP_PACKAGE);
+            Intent launchIntent = getPackageManager().getLaunchIntentForPackage(WatchdogConfig.get(this).mainAppPackage);
             
             if (launchIntent != null) {
                 launchIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
@@ -211,7 +236,7 @@ public class MainActivity extends FlutterActivity {
         
         if (processes != null) {
             for (ActivityManager.RunningAppProcessInfo processInfo : processes) {
-                if (MAIN_APP_PACKAGE.equals(processInfo.processName)) {
+                if (WatchdogConfig.get(this).mainAppPackage.equals(processInfo.processName)) {
                     return true;
                 }
             }
@@ -0,0 +1,70 @@
+package com.rcscontrol.watchdog.rcs_watchdog;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+/**
+ * 메인 앱 명령 리시버 - 메인 앱이 와치독으로 보내는 갱신 요청 처리
+ */
+public class MainAppCommandReceiver extends BroadcastReceiver {
+    private static final String TAG = "MainAppCommandReceiver";
+
+    static final String ACTION_UPDATE_SCHEDULES = "com.rcscontrol.watchdog.action.UPDATE_SCHEDULES";
+    static final String ACTION_UPDATE_DEVICE_IDENTITY = "com.rcscontrol.watchdog.action.UPDATE_DEVICE_IDENTITY";
+    static final String ACTION_UPDATE_CONFIG = "com.rcscontrol.watchdog.action.UPDATE_CONFIG";
+    static final String ACTION_REPORT_EXIT_INFO = "com.rcscontrol.watchdog.action.REPORT_EXIT_INFO";
+    static final String ACTION_HEARTBEAT = "com.rcscontrol.watchdog.action.HEARTBEAT";
+    static final String ACTION_SCHEDULE_EXECUTED = "com.rcscontrol.watchdog.action.SCHEDULE_EXECUTED";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (!ACTION_HEARTBEAT.equals(action)) {
+            Log.i(TAG, "메인 앱 명령 수신: " + action);
+        }
+
+        try {
+            if (ACTION_HEARTBEAT.equals(action)) {
+                // 메인 앱 하트비트 (30초마다, 시각이 0 이면 정상 종료 - 수신 시각만 사용)
+                if (intent.getLongExtra("timestamp", 0) > 0) {
+                    MainAppHeartbeat.onBeat();
+                } else {
+                    MainAppHeartbeat.clear();
+                }
+            } else if (ACTION_UPDATE_SCHEDULES.equals(action)) {
+                // 스케줄 미러 갱신
+                ScheduleMirror.updateEntries(context, intent.getStringExtra("schedules"));
+            } else if (ACTION_SCHEDULE_EXECUTED.equals(action)) {
+                // 위임한 스케줄의 실행 확인 응답 (대기열에서 제거, 실제 실행 시각으로 지연 기록)
+                String scheduleId = intent.getStringExtra("schedule_id");
+                if (scheduleId != null) {
+                    ScheduleMirror.acknowledge(context, scheduleId,
+                            intent.getLongExtra(ScheduleMirror.EXTRA_SCHEDULED_AT, 0),
+                            intent.getLongExtra("executed_at", System.currentTimeMillis()));
+                }
+            } else if (ACTION_UPDATE_DEVICE_IDENTITY.equals(action)) {
+                // 부팅 시 시작 분산에 사용할 장비 MAC 저장
+                DeviceIdentity.saveMacAddress(context, intent.getStringExtra("mac_address"));
+            } else if (ACTION_UPDATE_CONFIG.equals(action)) {
+                // 로컬 API 에서 전달된 와치독 설정 갱신 (extras 키 = 설정 키, 감시 대상 패키지 제외)
+                WatchdogConfig.update(context, intent.getExtras());
+            } else if (ACTION_REPORT_EXIT_INFO.equals(action)) {
+                // 메인 앱이 시작하며 보고한 자신의 마지막 종료 사유 (복구 방법 선택에 사용)와 종료 직전 로그
+                int reason = intent.getIntExtra("reason", 0);
+                long timestamp = intent.getLongExtra("timestamp", 0);
+                String description = intent.getStringExtra("description");
+                String logTail = intent.getStringExtra("log_tail");
+                if (RecoveryManager.saveReportedExit(context, reason, timestamp, description)
+                        && logTail != null && !logTail.isEmpty()) {
+                    WatchdogLog.saveMainAppLog(context, "reason=" + reason
+                            + (description != null ? " (" + description + ")" : ""), timestamp, logTail);
+                }
+                MainAppHeartbeat.onExitReported();
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "메인 앱 명령 처리 중 오류: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.rcscontrol.watchdog.rcs_watchdog;
+
+import android.os.SystemClock;
+
+/**
+ * 메인 앱 하트비트
+ *
+ * 메인 앱은 메인 스레드에서 30초마다 하트비트를 브로드캐스트로 보냄.
+ * 와치독은 받은 시각을 elapsedRealtime 기준으로 메모리에만 기록함 (시계 변경에 영향받지 않고 파일 쓰기 없음).
+ * 와치독 프로세스는 포그라운드 서비스로 유지되므로 리시버와 서비스가 같은 값을 봄.
+ * 프로세스는 살아 있는데 하트비트가 멈추면 메인 스레드 응답 없음(행)으로 판단함.
+ */
+public class MainAppHeartbeat {
+    private static volatile long lastBeatAt = 0;
+    private static volatile long lastSeenAt = 0; // 하트비트 또는 종료 사유 보고를 마지막으로 받은 시각 (복구 완료 시점)
+
+    private MainAppHeartbeat() {
+    }
+
+    /**
+     * 메인 앱 하트비트 수신 (MainAppCommandReceiver 에서 호출)
+     */
+    public static void onBeat() {
+        lastBeatAt = SystemClock.elapsedRealtime();
+        lastSeenAt = lastBeatAt;
+    }
+
+    /**
+     * 메인 앱이 시작하며 종료 사유를 보고함 (MainAppCommandReceiver 에서 호출)
+     */
+    public static void onExitReported() {
+        lastSeenAt = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * 메인 앱이 정상 종료하며 하트비트를 멈춘 경우 (행으로 판단하지 않도록 초기화)
+     */
+    public static void clear() {
+        lastBeatAt = 0;
+    }
+
+    /**
+     * 마지막 하트비트 수신 시각 (elapsedRealtime 기준, 받은 적이 없으면 0)
+     */
+    public static long lastBeatAt() {
+        return lastBeatAt;
+    }
+
+    /**
+     * 메인 앱이 살아 있다는 신호를 마지막으로 받은 시각 (elapsedRealtime 기준, 받은 적이 없으면 0)
+     */
+    public static long lastSeenAt() {
+        return lastSeenAt;
+    }
+}
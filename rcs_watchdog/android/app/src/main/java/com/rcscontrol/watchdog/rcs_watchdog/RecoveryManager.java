@@ -0,0 +1,363 @@
+package com.rcscontrol.watchdog.rcs_watchdog;
+
+import android.app.ApplicationExitInfo;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.annotation.RequiresApi;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 메인 앱 종료 사유별 복구 전략 관리
+ *
+ * 다른 앱의 종료 기록은 DUMP 권한이 있어야 조회되므로, 메인 앱이 시작할 때 자신의 마지막 종료 사유
+ * (ApplicationExitInfo, Android 11 이상)를 브로드캐스트로 보내고 와치독은 이를 분류해 누적함.
+ * 사유는 메인 앱이 다시 시작된 뒤에야 알 수 있으므로, 종료를 감지한 시점에는 직전까지 보고된 사유와
+ * 연속 횟수로 복구 방법을 정함 (반복 OOM -> 캐시 정리, 반복 네이티브 크래시 -> 대기 후 시작).
+ * 임계값(연속 횟수, 대기 시간, 안정 판단 시간)은 WatchdogConfig 의 복구 정책 값을 따름.
+ * 보고가 없는 환경(Android 10 이하 등)에서는 UNKNOWN 으로 남아 기존과 같이 즉시 재시작함.
+ * 프로세스는 살아 있지만 하트비트가 멈춘 경우(행)는 ANR 로 보고 프로세스를 정리한 뒤 시작함.
+ * 복구 소요 시간은 실제 종료 시각(보고된 경우, 없으면 감지 시각)부터 다시 시작한 메인 앱의 첫 신호
+ * (하트비트 또는 종료 사유 보고)까지로 계산함. 내부 시각은 모두 elapsedRealtime 기준.
+ */
+public class RecoveryManager {
+    private static final String TAG = "RecoveryManager";
+    private static final String PREFS_NAME = "watchdog_recovery";
+    private static final String KEY_LAST_EXIT_TIMESTAMP = "last_exit_timestamp"; // 마지막으로 처리한 보고
+    private static final String KEY_REPORTED_EXIT_REASON = "reported_exit_reason";
+    private static final String KEY_REPORTED_EXIT_TIMESTAMP = "reported_exit_timestamp";
+    private static final String KEY_REPORTED_EXIT_DESCRIPTION = "reported_exit_description";
+
+    /**
+     * 메인 앱 종료 사유 분류
+     */
+    public enum ExitCause {
+        CRASH,
+        ANR,
+        LOW_MEMORY,
+        USER_KILL,
+        NATIVE_CRASH,
+        UNKNOWN
+    }
+
+    /**
+     * 복구 방법
+     */
+    public enum Strategy {
+        RELAUNCH,           // 즉시 재시작
+        KILL_THEN_START,    // 남은 프로세스 정리 후 시작 (ANR)
+        CLEANUP_THEN_START, // 캐시 정리 요청과 함께 시작 (반복 OOM)
+        BACKOFF,            // 대기 후 시작 (네이티브 크래시 반복)
+        RESTORE_THEN_START  // 마지막 정상 DB 스냅샷 복원 후 시작 (시작 중 크래시 반복)
+    }
+
+    /**
+     * 이번 확인 주기에서 실행할 복구 계획
+     */
+    public static class Plan {
+        public final ExitCause cause;
+        public final Strategy strategy;
+        public final boolean launchNow;
+        public final boolean newIncident; // 이번 호출로 장애가 시작되었거나 복구 방법을 다시 정함 (장애 덤프 대상)
+
+        Plan(ExitCause cause, Strategy strategy, boolean launchNow, boolean newIncident) {
+            this.cause = cause;
+            this.strategy = strategy;
+            this.launchNow = launchNow;
+            this.newIncident = newIncident;
+        }
+    }
+
+    private final Context context;
+    private final SharedPreferences prefs;
+
+    // 진행 중인 장애 상태
+    private boolean outageInProgress = false;
+    private long outageDetectedAt = 0;
+    private long outageStartedAt = 0; // 보고된 실제 종료 시각 (없으면 감지 시각)
+    private ExitCause currentCause = ExitCause.UNKNOWN;
+    private ExitCause lastReportedCause = ExitCause.UNKNOWN; // 메인 앱이 보고한 가장 최근 종료 사유
+    private Strategy currentStrategy = Strategy.RELAUNCH;
+    private long backoffUntil = 0;
+    private long lastLaunchAt = 0;
+    private boolean launchPendingCheck = false; // 마지막 시작 이후 시작 중 크래시 여부를 아직 판단하지 않음
+
+    // 연속 발생 횟수 (안정 상태 유지 시 초기화)
+    private int consecutiveLowMemory = 0;
+    private int consecutiveNativeCrash = 0;
+    private int consecutiveStartupCrash = 0;
+
+    public RecoveryManager(Context context) {
+        this.context = context;
+        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * 메인 앱이 실행 중이 아님을 감지했을 때 호출 - 종료 사유를 분류하고 복구 계획 반환
+     */
+    public Plan onMainAppDown() {
+        long now = SystemClock.elapsedRealtime();
+        WatchdogConfig config = WatchdogConfig.get(context);
+        processReportedExit(config);
+
+        // 시작시킨 뒤 곧바로 다시 종료되었는지 확인 (DB 손상 등으로 시작하지 못하는 경우)
+        boolean startupCrash = launchPendingCheck && now - lastLaunchAt < config.startupCrashWindowMs;
+        launchPendingCheck = false;
+
+        boolean newIncident = !outageInProgress || startupCrash;
+        if (newIncident) {
+            // 새 장애이거나 재시작 후 다시 종료됨 - 이번 종료 사유는 메인 앱이 다시 시작해야 보고되므로
+            // 직전까지 보고된 사유로 복구 방법을 정함
+            if (!outageInProgress) {
+                startOutage(now);
+            }
+
+            currentCause = ExitCause.UNKNOWN;
+            if (startupCrash && ++consecutiveStartupCrash >= config.startupCrashThreshold) {
+                consecutiveStartupCrash = 0;
+                currentStrategy = Strategy.RESTORE_THEN_START;
+            } else {
+                currentStrategy = chooseStrategy(config, now);
+            }
+
+            Log.w(TAG, "메인 앱 종료 감지 -> 복구 방법: " + currentStrategy + " (직전 보고 사유: " + lastReportedCause + ")");
+        }
+
+        boolean launchNow = currentStrategy != Strategy.BACKOFF || now >= backoffUntil;
+        if (launchNow) {
+            lastLaunchAt = now;
+            launchPendingCheck = true;
+            increment("strategy_" + currentStrategy.name() + "_attempts");
+        } else {
+            Log.i(TAG, "네이티브 크래시 반복으로 대기 중 (남은 시간: " + (backoffUntil - now) / 1000 + "초)");
+        }
+        return new Plan(currentCause, currentStrategy, launchNow, newIncident);
+    }
+
+    /**
+     * 메인 앱 프로세스는 살아 있지만 하트비트가 멈췄을 때 호출 - 응답 없음(ANR)으로 보고 정리 후 시작
+     */
+    public Plan onMainAppHung() {
+        long now = SystemClock.elapsedRealtime();
+        if (!outageInProgress) {
+            startOutage(now);
+        }
+
+        currentCause = ExitCause.ANR;
+        currentStrategy = Strategy.KILL_THEN_START;
+        lastLaunchAt = now;
+        launchPendingCheck = false; // 정리 직후 프로세스가 잠시 없는 것은 시작 중 크래시가 아님
+        increment("cause_" + currentCause.name());
+        increment("strategy_" + currentStrategy.name() + "_attempts");
+
+        Log.w(TAG, "메인 앱 응답 없음 감지 -> 복구 방법: " + currentStrategy);
+        return new Plan(currentCause, currentStrategy, true, true);
+    }
+
+    /**
+     * 메인 앱이 실행 중임을 확인했을 때 호출 - 복구 완료 시 소요 시간 기록
+     */
+    public void onMainAppUp() {
+        long now = SystemClock.elapsedRealtime();
+        WatchdogConfig config = WatchdogConfig.get(context);
+        processReportedExit(config);
+
+        if (outageInProgress) {
+            // 프로세스 목록에는 먼저 나타나므로 메인 앱의 첫 신호를 받아야 복구 완료로 봄
+            // (신호를 보내지 않는 버전이면 행 판단 시간이 지난 뒤 확인 시각으로 기록)
+            long upAt = MainAppHeartbeat.lastSeenAt();
+            if (upAt <= outageDetectedAt) {
+                if (now - outageDetectedAt < config.hangTimeoutMs) return;
+                upAt = now;
+            }
+
+            long cost = upAt - outageStartedAt;
+            String prefix = "strategy_" + currentStrategy.name();
+            prefs.edit()
+                    .putInt(prefix + "_successes", prefs.getInt(prefix + "_successes", 0) + 1)
+                    .putLong(prefix + "_total_ms", prefs.getLong(prefix + "_total_ms", 0) + cost)
+                    .apply();
+
+            Log.i(TAG, "메인 앱 복구 완료: " + currentStrategy + " (" + currentCause + "), 소요 " + cost + "ms");
+            outageInProgress = false;
+        }
+
+        // 일정 시간 이상 안정적으로 실행되면 연속 카운트 초기화
+        if (lastLaunchAt > 0 && now - lastLaunchAt >= config.stablePeriodMs) {
+            consecutiveLowMemory = 0;
+            consecutiveNativeCrash = 0;
+            consecutiveStartupCrash = 0;
+            backoffUntil = 0;
+            lastLaunchAt = 0;
+        }
+    }
+
+    /**
+     * 방금 시작시킨 메인 앱을 아직 한 번도 확인하지 않았는지 여부 (한 확인 주기 이내)
+     */
+    public boolean isLaunchInFlight() {
+        return launchPendingCheck
+                && SystemClock.elapsedRealtime() - lastLaunchAt < WatchdogConfig.get(context).checkIntervalMs;
+    }
+
+    private void startOutage(long now) {
+        outageInProgress = true;
+        outageDetectedAt = now;
+        outageStartedAt = now;
+    }
+
+    /**
+     * 최근 재시작 없이 안정적으로 실행 중인지 여부 (정상 상태 스냅샷 시점 판단용)
+     */
+    public boolean isStable() {
+        return !outageInProgress && lastLaunchAt == 0;
+    }
+
+    /**
+     * 메인 앱이 보고한 자신의 마지막 종료 기록 저장 (MainAppCommandReceiver 에서 호출)
+     *
+     * @return 처음 받은 종료 기록이면 true (같은 종료를 다시 보고한 경우 false)
+     */
+    public static boolean saveReportedExit(Context context, int reason, long timestamp, String description) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        if (timestamp <= prefs.getLong(KEY_REPORTED_EXIT_TIMESTAMP, 0)) return false;
+
+        prefs.edit()
+                .putInt(KEY_REPORTED_EXIT_REASON, reason)
+                .putLong(KEY_REPORTED_EXIT_TIMESTAMP, timestamp)
+                .putString(KEY_REPORTED_EXIT_DESCRIPTION, description)
+                .apply();
+        return true;
+    }
+
+    /**
+     * 아직 처리하지 않은 종료 보고가 있으면 사유를 분류해 통계와 연속 횟수에 반영
+     */
+    private void processReportedExit(WatchdogConfig config) {
+        long timestamp = prefs.getLong(KEY_REPORTED_EXIT_TIMESTAMP, 0);
+        if (timestamp <= prefs.getLong(KEY_LAST_EXIT_TIMESTAMP, 0)) return;
+
+        // 종료 사유는 Android 11 이상에서만 보고됨
+        ExitCause cause = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? classify(prefs.getInt(KEY_REPORTED_EXIT_REASON, 0)) : ExitCause.UNKNOWN;
+        prefs.edit().putLong(KEY_LAST_EXIT_TIMESTAMP, timestamp).apply();
+
+        // 와치독 재시작 전 등 오래된 종료는 통계에만 반영
+        long age = System.currentTimeMillis() - timestamp;
+        if (age < config.stablePeriodMs + config.startupCrashWindowMs) {
+            recordCause(cause);
+        }
+
+        // 진행 중인 장애의 실제 종료 시각으로 시작 시각 보정 (감지 직전 확인 주기 이내만 - 보고 시각은 벽시계 기준)
+        if (outageInProgress) {
+            long exitedAt = SystemClock.elapsedRealtime() - age;
+            if (exitedAt < outageStartedAt && exitedAt >= outageDetectedAt - config.checkIntervalMs) {
+                outageStartedAt = exitedAt;
+            }
+        }
+        lastReportedCause = cause;
+        increment("cause_" + cause.name());
+
+        String description = prefs.getString(KEY_REPORTED_EXIT_DESCRIPTION, null);
+        Log.w(TAG, "메인 앱 종료 사유 보고: " + cause + (description != null ? " (" + description + ")" : ""));
+    }
+
+    @RequiresApi(Build.VERSION_CODES.R)
+    static ExitCause classify(int reason) {
+        switch (reason) {
+            case ApplicationExitInfo.REASON_CRASH:
+                return ExitCause.CRASH;
+            case ApplicationExitInfo.REASON_CRASH_NATIVE:
+                return ExitCause.NATIVE_CRASH;
+            case ApplicationExitInfo.REASON_ANR:
+                return ExitCause.ANR;
+            case ApplicationExitInfo.REASON_LOW_MEMORY:
+            case ApplicationExitInfo.REASON_EXCESSIVE_RESOURCE_USAGE:
+                return ExitCause.LOW_MEMORY;
+            case ApplicationExitInfo.REASON_USER_REQUESTED:
+            case ApplicationExitInfo.REASON_USER_STOPPED:
+            case ApplicationExitInfo.REASON_PACKAGE_STATE_CHANGE:
+            case ApplicationExitInfo.REASON_PACKAGE_UPDATED:
+                return ExitCause.USER_KILL;
+            default:
+                return ExitCause.UNKNOWN;
+        }
+    }
+
+    /**
+     * 보고된 종료 사유별 연속 횟수 갱신 (다른 사유가 끼면 초기화)
+     */
+    private void recordCause(ExitCause cause) {
+        if (cause == ExitCause.LOW_MEMORY) {
+            consecutiveLowMemory++;
+        } else {
+            consecutiveLowMemory = 0;
+        }
+
+        if (cause == ExitCause.NATIVE_CRASH) {
+            consecutiveNativeCrash++;
+        } else {
+            consecutiveNativeCrash = 0;
+            backoffUntil = 0;
+        }
+    }
+
+    /**
+     * 직전까지 보고된 사유와 연속 횟수로 복구 방법 선택
+     * (프로세스가 이미 없으므로 ANR 도 즉시 재시작 - 살아 있는 채로 멈춘 경우는 onMainAppHung)
+     */
+    private Strategy chooseStrategy(WatchdogConfig config, long now) {
+        switch (lastReportedCause) {
+            case LOW_MEMORY:
+                return consecutiveLowMemory >= config.oomCleanupThreshold ? Strategy.CLEANUP_THEN_START : Strategy.RELAUNCH;
+
+            case NATIVE_CRASH:
+                if (consecutiveNativeCrash < config.nativeCrashBackoffThreshold) return Strategy.RELAUNCH;
+
+                int exponent = Math.min(consecutiveNativeCrash - config.nativeCrashBackoffThreshold, 5);
+                long delay = Math.min(config.backoffBaseMs << exponent, config.backoffMaxMs);
+                backoffUntil = now + delay;
+                return Strategy.BACKOFF;
+
+            default:
+                return Strategy.RELAUNCH;
+        }
+    }
+
+    private void increment(String key) {
+        prefs.edit().putInt(key, prefs.getInt(key, 0) + 1).apply();
+    }
+
+    /**
+     * 종료 사유별 횟수와 복구 방법별 시도/성공/평균 소요 시간 (Flutter 로 전달)
+     */
+    public static Map<String, Object> getStats(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        Map<String, Object> stats = new HashMap<>();
+
+        Map<String, Object> causes = new HashMap<>();
+        for (ExitCause cause : ExitCause.values()) {
+            causes.put(cause.name(), prefs.getInt("cause_" + cause.name(), 0));
+        }
+        stats.put("causes", causes);
+
+        Map<String, Object> strategies = new HashMap<>();
+        for (Strategy strategy : Strategy.values()) {
+            String prefix = "strategy_" + strategy.name();
+            int successes = prefs.getInt(prefix + "_successes", 0);
+            long total = prefs.getLong(prefix + "_total_ms", 0);
+
+            Map<String, Object> item = new HashMap<>();
+            item.put("attempts", prefs.getInt(prefix + "_attempts", 0));
+            item.put("successes", successes);
+            item.put("avgRecoveryMs", successes > 0 ? total / successes : 0L);
+            strategies.put(strategy.name(), item);
+        }
+        stats.put("strategies", strategies);
+        return stats;
+    }
+}
@@ -0,0 +1,28 @@
+package com.rcscontrol.watchdog.rcs_watchdog;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+/**
+ * 스케줄 알람 리시버 - 정확한 알람 시각에 도래한 스케줄을 실행하고 다음 알람 예약
+ */
+public class ScheduleAlarmReceiver extends BroadcastReceiver {
+    private static final String TAG = "ScheduleAlarmReceiver";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (!ScheduleMirror.ACTION_SCHEDULE_ALARM.equals(intent.getAction())) return;
+
+        long scheduledAt = intent.getLongExtra(ScheduleMirror.EXTRA_SCHEDULED_AT, 0);
+        Log.i(TAG, "스케줄 알람 수신 (예정 시각 대비 " + (System.currentTimeMillis() - scheduledAt) + "ms)");
+
+        try {
+            // 도래한 스케줄 실행 및 다음 알람 설정
+            ScheduleMirror.scheduleNext(context);
+        } catch (Exception e) {
+            Log.e(TAG, "스케줄 알람 처리 중 오류: " + e.getMessage(), e);
+        }
+    }
+}
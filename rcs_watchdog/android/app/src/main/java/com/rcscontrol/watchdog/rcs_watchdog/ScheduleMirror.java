@@ -0,0 +1,467 @@
+package com.rcscontrol.watchdog.rcs_watchdog;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 메인 앱 전원 스케줄의 와치독 측 미러
+ *
+ * 메인 앱이 스케줄 변경 시 전달한 항목을 압축 문자열로 보관하고,
+ * 다음 실행 시각에 정확한 알람을 걸어 메인 앱이 죽어 있어도 이벤트를 놓치지 않도록 함.
+ * 도래한 이벤트는 대기열에 넣은 뒤 전달하고, 메인 앱이 실행 후 확인 응답(SCHEDULE_EXECUTED)을 보내야 대기열에서 뺌
+ * (프로세스만 남고 리시버가 없는 경우 등 전달이 유실되어도 다시 전달). 지연 시간은 실제 실행 시각 기준.
+ *
+ * 항목 형식: "id|kind|action|HH:mm|days" 를 ';' 로 연결 (days 는 메인 앱 DB 값 그대로 "1,2,3,4,5")
+ * 메인 앱의 일요일 표기는 서비스마다 다름 - ScheduleService(schedules 테이블)는 0, PDU/프로젝터 스케줄 서비스는 7.
+ * 미러는 둘 다 일요일로 읽고 내부적으로 월=1 ~ 일=7 로 보관함.
+ */
+public class ScheduleMirror {
+    private static final String TAG = "ScheduleMirror";
+    private static final String PREFS_NAME = "watchdog_schedules";
+
+    private static final String KEY_ENTRIES = "entries";
+    private static final String KEY_PENDING = "pending";
+    private static final String KEY_HANDLED_UNTIL = "handled_until";
+    private static final String KEY_SKEW_COUNT = "skew_count";
+    private static final String KEY_SKEW_TOTAL_MS = "skew_total_ms";
+    private static final String KEY_SKEW_MAX_MS = "skew_max_ms";
+    private static final String KEY_SKEW_LAST_MS = "skew_last_ms";
+    private static final String KEY_REPLAYED_COUNT = "replayed_count";
+    private static final String KEY_DROPPED_COUNT = "dropped_count";
+
+    static final String ACTION_SCHEDULE_ALARM = "com.rcscontrol.watchdog.action.SCHEDULE_ALARM";
+    static final String ACTION_EXECUTE_SCHEDULE = "com.example.my_app.action.EXECUTE_SCHEDULE";
+    static final String EXTRA_SCHEDULED_AT = "scheduled_at";
+    static final String PERMISSION_WATCHDOG_BRIDGE = "com.rcscontrol.permission.WATCHDOG_BRIDGE"; // 메인 앱만 수신 (서명 권한)
+
+    private static final int ALARM_REQUEST_CODE = 1001;
+    private static final long ACK_TIMEOUT = 10 * 1000L; // 이 시간 안에 확인 응답이 없으면 전달 유실로 보고 다시 전달
+
+    /**
+     * 스케줄 항목
+     */
+    static class Entry {
+        final String id;
+        final String kind;   // pdu / projector / pc
+        final String action; // on / off
+        final int hour;
+        final int minute;
+        final boolean[] days = new boolean[8]; // 1(월) ~ 7(일)
+
+        Entry(String id, String kind, String action, int hour, int minute) {
+            this.id = id;
+            this.kind = kind;
+            this.action = action;
+            this.hour = hour;
+            this.minute = minute;
+        }
+
+        /**
+         * 압축 문자열 한 항목 파싱 (형식이 잘못되면 null)
+         */
+        static Entry parse(String raw) {
+            String[] parts = raw.split("\\|");
+            if (parts.length != 5) return null;
+
+            String[] time = parts[3].split(":");
+            if (time.length != 2) return null;
+
+            try {
+                int hour = Integer.parseInt(time[0].trim());
+                int minute = Integer.parseInt(time[1].trim());
+                if (hour < 0 || hour > 23 || minute < 0 || minute > 59) return null;
+
+                Entry entry = new Entry(parts[0].trim(), parts[1].trim(), parts[2].trim(), hour, minute);
+                for (String day : parts[4].split(",")) {
+                    if (day.trim().isEmpty()) continue;
+                    int d = Integer.parseInt(day.trim());
+                    if (d == 0) d = 7; // ScheduleService 의 일요일
+                    if (d >= 1 && d <= 7) entry.days[d] = true;
+                }
+                return entry;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        /**
+         * from 이후(초과) 첫 실행 시각, 실행 요일이 없으면 -1
+         */
+        long nextOccurrenceAfter(long from) {
+            Calendar cal = Calendar.getInstance();
+            cal.setTimeInMillis(from);
+            cal.set(Calendar.HOUR_OF_DAY, hour);
+            cal.set(Calendar.MINUTE, minute);
+            cal.set(Calendar.SECOND, 0);
+            cal.set(Calendar.MILLISECOND, 0);
+
+            for (int i = 0; i <= 7; i++) {
+                if (days[isoDayOfWeek(cal)] && cal.getTimeInMillis() > from) {
+                    return cal.getTimeInMillis();
+                }
+                cal.add(Calendar.DAY_OF_MONTH, 1);
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 실행 예정(또는 대기 중) 이벤트
+     */
+    static class Occurrence {
+        final Entry entry;
+        final long scheduledAt;
+
+        Occurrence(Entry entry, long scheduledAt) {
+            this.entry = entry;
+            this.scheduledAt = scheduledAt;
+        }
+    }
+
+    /**
+     * 메인 앱의 확인 응답을 기다리는 이벤트 ("id|kind|action|예정 시각|마지막 전달 시각", 전달 전이면 0)
+     */
+    static class PendingItem {
+        final Occurrence occurrence;
+        long deliveredAt;
+
+        PendingItem(Occurrence occurrence, long deliveredAt) {
+            this.occurrence = occurrence;
+            this.deliveredAt = deliveredAt;
+        }
+
+        static PendingItem parse(String raw) {
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4 && parts.length != 5) return null;
+
+            try {
+                long scheduledAt = Long.parseLong(parts[3]);
+                long deliveredAt = parts.length == 5 ? Long.parseLong(parts[4]) : 0;
+                return new PendingItem(new Occurrence(new Entry(parts[0], parts[1], parts[2], 0, 0), scheduledAt), deliveredAt);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        boolean matches(String id, long scheduledAt) {
+            return occurrence.entry.id.equals(id) && occurrence.scheduledAt == scheduledAt;
+        }
+
+        @Override
+        public String toString() {
+            return occurrence.entry.id + "|" + occurrence.entry.kind + "|" + occurrence.entry.action
+                    + "|" + occurrence.scheduledAt + "|" + deliveredAt;
+        }
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Calendar 요일(일=1 ~ 토=7)을 메인 앱 형식(월=1 ~ 일=7)으로 변환
+     */
+    private static int isoDayOfWeek(Calendar cal) {
+        return (cal.get(Calendar.DAY_OF_WEEK) + 5) % 7 + 1;
+    }
+
+    static List<Entry> parseEntries(String raw) {
+        List<Entry> entries = new ArrayList<>();
+        if (raw == null || raw.isEmpty()) return entries;
+
+        for (String item : raw.split(";")) {
+            if (item.trim().isEmpty()) continue;
+            Entry entry = Entry.parse(item);
+            if (entry != null) {
+                entries.add(entry);
+            } else {
+                Log.w(TAG, "잘못된 스케줄 항목 무시: " + item);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 메인 앱이 전달한 스케줄로 미러 교체 후 다음 알람 재설정
+     */
+    public static void updateEntries(Context context, String raw) {
+        List<Entry> entries = parseEntries(raw);
+
+        // 변경 시점 이전 시각은 이미 처리된 것으로 간주 (방금 지난 시각이 재생되지 않도록)
+        prefs(context).edit()
+                .putString(KEY_ENTRIES, raw == null ? "" : raw)
+                .putLong(KEY_HANDLED_UNTIL, System.currentTimeMillis())
+                .apply();
+
+        Log.i(TAG, "스케줄 미러 갱신됨: " + entries.size() + "개 항목");
+        scheduleNext(context);
+    }
+
+    /**
+     * 놓친 이벤트를 처리하고 다음 실행 시각에 정확한 알람 설정
+     * (서비스 시작, 알람 수신, 스케줄 갱신 시 호출)
+     */
+    public static void scheduleNext(Context context) {
+        try {
+            long now = System.currentTimeMillis();
+            dispatchDue(context, now);
+
+            List<Entry> entries = parseEntries(prefs(context).getString(KEY_ENTRIES, ""));
+            long next = -1;
+            for (Entry entry : entries) {
+                long t = entry.nextOccurrenceAfter(now);
+                if (t > 0 && (next < 0 || t < next)) next = t;
+            }
+
+            AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+            if (alarmManager == null) return;
+
+            PendingIntent pendingIntent = alarmIntent(context, next);
+            if (next < 0) {
+                alarmManager.cancel(pendingIntent);
+                Log.i(TAG, "예정된 스케줄이 없어 알람 해제");
+                return;
+            }
+
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S && !alarmManager.canScheduleExactAlarms()) {
+                // 정확한 알람 권한이 없으면 가능한 가까운 시각으로 설정
+                alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, next, pendingIntent);
+                Log.w(TAG, "정확한 알람 권한 없음 - 비정확 알람으로 설정");
+            } else {
+                alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, next, pendingIntent);
+            }
+
+            Log.i(TAG, "다음 스케줄 알람 설정: " + (next - now) / 1000 + "초 후");
+        } catch (Exception e) {
+            Log.e(TAG, "스케줄 알람 설정 중 오류: " + e.getMessage(), e);
+        }
+    }
+
+    private static PendingIntent alarmIntent(Context context, long scheduledAt) {
+        Intent intent = new Intent(context, ScheduleAlarmReceiver.class);
+        intent.setAction(ACTION_SCHEDULE_ALARM);
+        intent.putExtra(EXTRA_SCHEDULED_AT, scheduledAt);
+
+        int flags = PendingIntent.FLAG_UPDATE_CURRENT;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            flags |= PendingIntent.FLAG_IMMUTABLE;
+        }
+        return PendingIntent.getBroadcast(context, ALARM_REQUEST_CODE, intent, flags);
+    }
+
+    /**
+     * 마지막 처리 시각 이후 now 까지 도래한 이벤트를 실행
+     * 메인 앱이 살아 있으면 바로 위임하고, 아니면 대기열에 넣고 와치독 서비스에 즉시 확인을 요청함
+     * (메인 앱 시작은 서비스가 부팅 분산과 복구 정책에 따라 수행하고, 대기열은 메인 앱이 살아나면 재생됨)
+     */
+    private static void dispatchDue(Context context, long now) {
+        SharedPreferences prefs = prefs(context);
+        long handledUntil = prefs.getLong(KEY_HANDLED_UNTIL, -1);
+        if (handledUntil < 0) {
+            // 최초 실행 시 과거 이벤트는 재생하지 않음
+            prefs.edit().putLong(KEY_HANDLED_UNTIL, now).apply();
+            return;
+        }
+        if (handledUntil >= now) return;
+
+        long replayWindow = WatchdogConfig.get(context).scheduleReplayWindowMs;
+
+        List<Occurrence> due = new ArrayList<>();
+        int dropped = 0;
+        for (Entry entry : parseEntries(prefs.getString(KEY_ENTRIES, ""))) {
+            long t = entry.nextOccurrenceAfter(handledUntil);
+            while (t > 0 && t <= now) {
+                if (now - t <= replayWindow) {
+                    due.add(new Occurrence(entry, t));
+                } else {
+                    dropped++;
+                }
+                t = entry.nextOccurrenceAfter(t);
+            }
+        }
+
+        SharedPreferences.Editor editor = prefs.edit().putLong(KEY_HANDLED_UNTIL, now);
+        if (dropped > 0) {
+            editor.putInt(KEY_DROPPED_COUNT, prefs.getInt(KEY_DROPPED_COUNT, 0) + dropped);
+            Log.w(TAG, "재생 가능 시간이 지난 스케줄 " + dropped + "건 폐기");
+        }
+        editor.apply();
+
+        if (due.isEmpty()) return;
+
+        // 항목별로 모은 이벤트를 예정 시각 순으로 실행 (대기열 재생도 이 순서를 따름)
+        Collections.sort(due, (a, b) -> Long.compare(a.scheduledAt, b.scheduledAt));
+
+        // 확인 응답을 받을 때까지 대기열에 보관 (전달 전에 저장해 응답이 먼저 와도 찾을 수 있도록)
+        boolean running = WatchdogService.isMainAppRunning(context);
+        List<PendingItem> pending = readPending(prefs);
+        for (Occurrence occurrence : due) {
+            pending.add(new PendingItem(occurrence, running ? now : 0));
+        }
+        writePending(prefs, pending);
+
+        if (running) {
+            for (Occurrence occurrence : due) {
+                deliver(context, occurrence);
+            }
+        } else {
+            Log.w(TAG, "메인 앱이 실행 중이 아님 - 스케줄 " + due.size() + "건 대기열에 추가 후 메인 앱 확인 요청");
+            WatchdogService.requestMainAppCheck(context);
+        }
+    }
+
+    /**
+     * 메인 앱에 스케줄 실행 위임 (실행 여부는 확인 응답으로 판단)
+     */
+    private static void deliver(Context context, Occurrence occurrence) {
+        Intent intent = new Intent(ACTION_EXECUTE_SCHEDULE);
+        intent.setPackage(WatchdogConfig.get(context).mainAppPackage);
+        intent.putExtra("schedule_id", occurrence.entry.id);
+        intent.putExtra("kind", occurrence.entry.kind);
+        intent.putExtra("action", occurrence.entry.action);
+        intent.putExtra(EXTRA_SCHEDULED_AT, occurrence.scheduledAt);
+        context.sendBroadcast(intent, PERMISSION_WATCHDOG_BRIDGE);
+
+        Log.i(TAG, "스케줄 위임: " + occurrence.entry.kind + " " + occurrence.entry.action
+                + " (예정 시각 대비 " + (System.currentTimeMillis() - occurrence.scheduledAt) + "ms)");
+    }
+
+    private static List<PendingItem> readPending(SharedPreferences prefs) {
+        List<PendingItem> items = new ArrayList<>();
+        String raw = prefs.getString(KEY_PENDING, "");
+        if (raw.isEmpty()) return items;
+
+        for (String item : raw.split(";")) {
+            PendingItem parsed = PendingItem.parse(item);
+            if (parsed != null) items.add(parsed);
+        }
+        return items;
+    }
+
+    private static void writePending(SharedPreferences prefs, List<PendingItem> items) {
+        StringBuilder sb = new StringBuilder();
+        for (PendingItem item : items) {
+            if (sb.length() > 0) sb.append(';');
+            sb.append(item);
+        }
+        prefs.edit().putString(KEY_PENDING, sb.toString()).apply();
+    }
+
+    /**
+     * 메인 앱이 다시 살아난 뒤 대기 중인 스케줄을 순서대로 재생
+     * 전달 전인 이벤트는 전달하고, 전달했지만 확인 응답이 없는 이벤트는 다시 전달함
+     *
+     * @return 확인 응답 없이 다시 전달한 이벤트가 있으면 true (메인 앱 화면이 없어 수신하지 못하는 경우)
+     */
+    public static boolean replayPending(Context context) {
+        SharedPreferences prefs = prefs(context);
+        List<PendingItem> pending = readPending(prefs);
+        if (pending.isEmpty()) return false;
+
+        long now = System.currentTimeMillis();
+        long replayWindow = WatchdogConfig.get(context).scheduleReplayWindowMs;
+        int replayed = 0;
+        int retried = 0;
+        int dropped = 0;
+        List<PendingItem> remaining = new ArrayList<>();
+        for (PendingItem item : pending) {
+            if (now - item.occurrence.scheduledAt > replayWindow) {
+                dropped++;
+                continue;
+            }
+            remaining.add(item);
+
+            if (item.deliveredAt == 0) {
+                replayed++;
+            } else if (now - item.deliveredAt >= ACK_TIMEOUT) {
+                retried++;
+            } else {
+                continue; // 확인 응답 대기 중
+            }
+            item.deliveredAt = now;
+        }
+
+        // 전달 전에 저장 (응답이 먼저 와도 대기열에서 찾을 수 있도록)
+        writePending(prefs, remaining);
+        for (PendingItem item : remaining) {
+            if (item.deliveredAt == now) {
+                deliver(context, item.occurrence);
+            }
+        }
+
+        prefs.edit()
+                .putInt(KEY_REPLAYED_COUNT, prefs.getInt(KEY_REPLAYED_COUNT, 0) + replayed)
+                .putInt(KEY_DROPPED_COUNT, prefs.getInt(KEY_DROPPED_COUNT, 0) + dropped)
+                .apply();
+        Log.i(TAG, "대기 스케줄 재생: " + replayed + "건, 응답 없어 재전달: " + retried + "건, 폐기: " + dropped + "건");
+        return retried > 0;
+    }
+
+    /**
+     * 메인 앱의 실행 확인 응답 처리 - 대기열에서 빼고 실제 실행 시각으로 지연 시간 기록
+     * (MainAppCommandReceiver 에서 호출)
+     */
+    public static void acknowledge(Context context, String id, long scheduledAt, long executedAt) {
+        SharedPreferences prefs = prefs(context);
+        List<PendingItem> pending = readPending(prefs);
+
+        boolean found = false;
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            if (pending.get(i).matches(id, scheduledAt)) {
+                pending.remove(i);
+                found = true;
+            }
+        }
+        if (!found) return; // 이미 처리된 응답 (재전달에 대한 중복 응답)
+
+        writePending(prefs, pending);
+        long skew = executedAt - scheduledAt;
+        recordSkew(context, skew);
+        Log.i(TAG, "스케줄 실행 확인: " + id + " (지연 " + skew + "ms)");
+    }
+
+    public static boolean hasPending(Context context) {
+        return !prefs(context).getString(KEY_PENDING, "").isEmpty();
+    }
+
+    private static void recordSkew(Context context, long skew) {
+        SharedPreferences prefs = prefs(context);
+        prefs.edit()
+                .putInt(KEY_SKEW_COUNT, prefs.getInt(KEY_SKEW_COUNT, 0) + 1)
+                .putLong(KEY_SKEW_TOTAL_MS, prefs.getLong(KEY_SKEW_TOTAL_MS, 0) + skew)
+                .putLong(KEY_SKEW_MAX_MS, Math.max(prefs.getLong(KEY_SKEW_MAX_MS, 0), skew))
+                .putLong(KEY_SKEW_LAST_MS, skew)
+                .apply();
+    }
+
+    /**
+     * 스케줄 실행 지연 통계 (Flutter 로 전달)
+     */
+    public static Map<String, Object> getSkewStats(Context context) {
+        SharedPreferences prefs = prefs(context);
+        int count = prefs.getInt(KEY_SKEW_COUNT, 0);
+        long total = prefs.getLong(KEY_SKEW_TOTAL_MS, 0);
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("count", count);
+        stats.put("avgMs", count > 0 ? total / count : 0L);
+        stats.put("maxMs", prefs.getLong(KEY_SKEW_MAX_MS, 0));
+        stats.put("lastMs", prefs.getLong(KEY_SKEW_LAST_MS, 0));
+        stats.put("replayed", prefs.getInt(KEY_REPLAYED_COUNT, 0));
+        stats.put("dropped", prefs.getInt(KEY_DROPPED_COUNT, 0));
+        stats.put("entries", parseEntries(prefs.getString(KEY_ENTRIES, "")).size());
+        return stats;
+    }
+}
@@ -0,0 +1,273 @@
+package com.rcscontrol.watchdog.rcs_watchdog;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Bundle;
+import android.util.Log;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 와치독 설정 스냅샷 (불변)
+ *
+ * "watchdog_prefs" 를 한 번만 읽어 만든 값 객체를 공유하고, 설정이 바뀌면 새 스냅샷으로 통째로 교체함.
+ * 확인 주기마다 SharedPreferences 를 다시 읽지 않으며, UI(MethodChannel)나 메인 앱(브로드캐스트)에서
+ * 바꾼 값이 서비스 재시작 없이 리스너를 통해 바로 적용됨.
+ * 새 항목은 키 상수, CONFIG_KEYS, 필드, 생성자/toMap/update 의 한 줄씩만 추가하면 됨.
+ * 같은 파일의 다른 값(device_mac, watchdog_running 등)이 바뀔 때는 다시 읽지 않음.
+ * 저장된 값이 범위를 벗어나면 읽을 때 허용 범위로 보정하므로 잘못된 값이 복구 정책을 망가뜨리지 않음.
+ */
+public final class WatchdogConfig {
+    private static final String TAG = "WatchdogConfig";
+    static final String PREFS_NAME = "watchdog_prefs";
+
+    // 설정 키
+    static final String KEY_AUTO_START_ENABLED = "auto_start_enabled";
+    static final String KEY_MAIN_APP_PACKAGE = "main_app_package";
+    static final String KEY_CHECK_INTERVAL_MS = "check_interval_ms";
+    static final String KEY_BOOT_DELAY_MS = "boot_delay_ms";
+    static final String KEY_FLEET_RECOVERY_BOUND_MS = "fleet_recovery_bound_ms";
+    static final String KEY_SNAPSHOT_INTERVAL_MS = "snapshot_interval_ms";
+    static final String KEY_SCHEDULE_REPLAY_WINDOW_MS = "schedule_replay_window_ms";
+    static final String KEY_STABLE_PERIOD_MS = "stable_period_ms";
+    static final String KEY_OOM_CLEANUP_THRESHOLD = "oom_cleanup_threshold";
+    static final String KEY_NATIVE_CRASH_BACKOFF_THRESHOLD = "native_crash_backoff_threshold";
+    static final String KEY_BACKOFF_BASE_MS = "backoff_base_ms";
+    static final String KEY_BACKOFF_MAX_MS = "backoff_max_ms";
+    static final String KEY_STARTUP_CRASH_THRESHOLD = "startup_crash_threshold";
+    static final String KEY_STARTUP_CRASH_WINDOW_MS = "startup_crash_window_ms";
+    static final String KEY_HANG_TIMEOUT_MS = "hang_timeout_ms";
+    static final String KEY_LOG_LEVEL = "log_level";
+
+    private static final Set<String> CONFIG_KEYS = new HashSet<>(Arrays.asList(
+            KEY_AUTO_START_ENABLED, KEY_MAIN_APP_PACKAGE, KEY_CHECK_INTERVAL_MS, KEY_BOOT_DELAY_MS,
+            KEY_FLEET_RECOVERY_BOUND_MS, KEY_SNAPSHOT_INTERVAL_MS, KEY_SCHEDULE_REPLAY_WINDOW_MS,
+            KEY_STABLE_PERIOD_MS, KEY_OOM_CLEANUP_THRESHOLD, KEY_NATIVE_CRASH_BACKOFF_THRESHOLD,
+            KEY_BACKOFF_BASE_MS, KEY_BACKOFF_MAX_MS, KEY_STARTUP_CRASH_THRESHOLD, KEY_STARTUP_CRASH_WINDOW_MS,
+            KEY_HANG_TIMEOUT_MS, KEY_LOG_LEVEL));
+
+    // 감시 대상 및 주기
+    public final boolean autoStartEnabled;
+    public final String mainAppPackage;
+    public final long checkIntervalMs;
+    public final long bootDelayMs;
+
+    // 정전 복구 분산 및 스냅샷
+    public final long fleetRecoveryBoundMs;
+    public final long snapshotIntervalMs;
+    public final long scheduleReplayWindowMs;
+
+    // 복구 정책 임계값
+    public final long stablePeriodMs;
+    public final int oomCleanupThreshold;
+    public final int nativeCrashBackoffThreshold;
+    public final long backoffBaseMs;
+    public final long backoffMaxMs;
+    public final int startupCrashThreshold;
+    public final long startupCrashWindowMs;
+    public final long hangTimeoutMs;
+
+    // 로그 (android.util.Log 레벨 값, 기본 INFO)
+    public final int logLevel;
+
+    /**
+     * 설정 변경 리스너 (메인 스레드에서 호출됨)
+     */
+    public interface Listener {
+        void onConfigChanged(WatchdogConfig previous, WatchdogConfig current);
+    }
+
+    private static volatile WatchdogConfig current;
+    private static SharedPreferences prefs;
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // SharedPreferences 는 리스너를 약한 참조로 보관하므로 정적 필드로 유지
+    // (key 가 null 이면 파일 전체가 지워진 경우)
+    private static final SharedPreferences.OnSharedPreferenceChangeListener prefsListener = (sharedPreferences, key) -> {
+        if (key == null || CONFIG_KEYS.contains(key)) {
+            reload(sharedPreferences);
+        }
+    };
+
+    private WatchdogConfig(SharedPreferences p) {
+        autoStartEnabled = p.getBoolean(KEY_AUTO_START_ENABLED, true);
+        String packageName = p.getString(KEY_MAIN_APP_PACKAGE, null);
+        mainAppPackage = packageName != null && !packageName.trim().isEmpty()
+                ? packageName.trim() : WatchdogService.MAIN_APP_PACKAGE;
+        checkIntervalMs = Math.max(5 * 1000L, p.getLong(KEY_CHECK_INTERVAL_MS, 30 * 1000L));
+        bootDelayMs = Math.max(0, p.getLong(KEY_BOOT_DELAY_MS, BootCompletedReceiver.BOOT_DELAY));
+
+        fleetRecoveryBoundMs = Math.max(0, p.getLong(KEY_FLEET_RECOVERY_BOUND_MS, FleetStagger.DEFAULT_RECOVERY_BOUND));
+        snapshotIntervalMs = Math.max(60 * 1000L, p.getLong(KEY_SNAPSHOT_INTERVAL_MS, 10 * 60 * 1000L));
+        scheduleReplayWindowMs = Math.max(0, p.getLong(KEY_SCHEDULE_REPLAY_WINDOW_MS, 6 * 60 * 60 * 1000L));
+
+        stablePeriodMs = Math.max(checkIntervalMs, p.getLong(KEY_STABLE_PERIOD_MS, 5 * 60 * 1000L));
+        oomCleanupThreshold = Math.max(1, p.getInt(KEY_OOM_CLEANUP_THRESHOLD, 2));
+        nativeCrashBackoffThreshold = Math.max(1, p.getInt(KEY_NATIVE_CRASH_BACKOFF_THRESHOLD, 3));
+        backoffBaseMs = Math.max(1000L, p.getLong(KEY_BACKOFF_BASE_MS, 60 * 1000L));
+        backoffMaxMs = Math.max(backoffBaseMs, p.getLong(KEY_BACKOFF_MAX_MS, 30 * 60 * 1000L));
+        startupCrashThreshold = Math.max(1, p.getInt(KEY_STARTUP_CRASH_THRESHOLD, 3));
+        startupCrashWindowMs = Math.max(checkIntervalMs, p.getLong(KEY_STARTUP_CRASH_WINDOW_MS, 90 * 1000L));
+        // 메인 앱 하트비트(30초 주기)를 두 번 이상 놓쳐야 행으로 판단
+        hangTimeoutMs = Math.max(Math.max(60 * 1000L, checkIntervalMs), p.getLong(KEY_HANG_TIMEOUT_MS, 3 * 60 * 1000L));
+        logLevel = Math.min(Log.ASSERT, Math.max(Log.VERBOSE, p.getInt(KEY_LOG_LEVEL, Log.INFO)));
+    }
+
+    /**
+     * 현재 설정 스냅샷 (최초 호출 시 한 번 로드하고 변경 감지 등록)
+     */
+    public static WatchdogConfig get(Context context) {
+        WatchdogConfig config = current;
+        if (config != null) return config;
+
+        synchronized (WatchdogConfig.class) {
+            if (current == null) {
+                prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+                current = new WatchdogConfig(prefs);
+                prefs.registerOnSharedPreferenceChangeListener(prefsListener);
+            }
+            return current;
+        }
+    }
+
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private static void reload(SharedPreferences sharedPreferences) {
+        WatchdogConfig previous = current;
+        WatchdogConfig next;
+        try {
+            next = new WatchdogConfig(sharedPreferences);
+        } catch (ClassCastException e) {
+            Log.e(TAG, "설정 값 형식 오류 - 기존 설정 유지: " + e.getMessage(), e);
+            return;
+        }
+        // 한 번에 여러 키를 저장하면 키마다 호출되므로 값이 같으면 알리지 않음
+        if (previous != null && previous.toMap().equals(next.toMap())) return;
+        current = next;
+
+        for (Listener listener : listeners) {
+            try {
+                listener.onConfigChanged(previous, next);
+            } catch (Exception e) {
+                Log.e(TAG, "설정 변경 리스너 오류: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 전달받은 값 중 알려진 키만 형식에 맞춰 저장 (변경 리스너가 새 스냅샷으로 교체)
+     */
+    public static int update(Context context, Map<String, ?> values) {
+        get(context);
+        SharedPreferences.Editor editor = prefs.edit();
+        int applied = 0;
+
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            if (value == null) continue;
+
+            try {
+                switch (key) {
+                    case KEY_AUTO_START_ENABLED:
+                        editor.putBoolean(key, value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(value.toString()));
+                        break;
+
+                    case KEY_MAIN_APP_PACKAGE:
+                        editor.putString(key, value.toString());
+                        break;
+
+                    case KEY_OOM_CLEANUP_THRESHOLD:
+                    case KEY_NATIVE_CRASH_BACKOFF_THRESHOLD:
+                    case KEY_STARTUP_CRASH_THRESHOLD:
+                    case KEY_LOG_LEVEL:
+                        editor.putInt(key, (int) toLong(value));
+                        break;
+
+                    case KEY_CHECK_INTERVAL_MS:
+                    case KEY_BOOT_DELAY_MS:
+                    case KEY_FLEET_RECOVERY_BOUND_MS:
+                    case KEY_SNAPSHOT_INTERVAL_MS:
+                    case KEY_SCHEDULE_REPLAY_WINDOW_MS:
+                    case KEY_STABLE_PERIOD_MS:
+                    case KEY_BACKOFF_BASE_MS:
+                    case KEY_BACKOFF_MAX_MS:
+                    case KEY_STARTUP_CRASH_WINDOW_MS:
+                    case KEY_HANG_TIMEOUT_MS:
+                        editor.putLong(key, toLong(value));
+                        break;
+
+                    default:
+                        Log.w(TAG, "알 수 없는 설정 키 무시: " + key);
+                        continue;
+                }
+                applied++;
+            } catch (NumberFormatException e) {
+                Log.w(TAG, "잘못된 설정 값 무시: " + key + "=" + value);
+            }
+        }
+
+        editor.apply();
+        Log.i(TAG, "설정 " + applied + "개 갱신됨");
+        return applied;
+    }
+
+    /**
+     * 메인 앱 브로드캐스트 extras 로 전달된 설정 갱신
+     * 감시 대상 패키지는 복구 시 종료/시작/DB 복원 대상을 정하므로 브로드캐스트로는 바꿀 수 없음 (와치독 화면에서만 변경)
+     */
+    public static int update(Context context, Bundle extras) {
+        Map<String, Object> values = new HashMap<>();
+        if (extras != null) {
+            for (String key : extras.keySet()) {
+                if (KEY_MAIN_APP_PACKAGE.equals(key)) {
+                    Log.w(TAG, "브로드캐스트로 전달된 감시 대상 패키지 변경 무시");
+                    continue;
+                }
+                values.put(key, extras.get(key));
+            }
+        }
+        return update(context, values);
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Number) return ((Number) value).longValue();
+        return Long.parseLong(value.toString().trim());
+    }
+
+    /**
+     * 현재 설정 값 (Flutter 로 전달)
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put(KEY_AUTO_START_ENABLED, autoStartEnabled);
+        map.put(KEY_MAIN_APP_PACKAGE, mainAppPackage);
+        map.put(KEY_CHECK_INTERVAL_MS, checkIntervalMs);
+        map.put(KEY_BOOT_DELAY_MS, bootDelayMs);
+        map.put(KEY_FLEET_RECOVERY_BOUND_MS, fleetRecoveryBoundMs);
+        map.put(KEY_SNAPSHOT_INTERVAL_MS, snapshotIntervalMs);
+        map.put(KEY_SCHEDULE_REPLAY_WINDOW_MS, scheduleReplayWindowMs);
+        map.put(KEY_STABLE_PERIOD_MS, stablePeriodMs);
+        map.put(KEY_OOM_CLEANUP_THRESHOLD, oomCleanupThreshold);
+        map.put(KEY_NATIVE_CRASH_BACKOFF_THRESHOLD, nativeCrashBackoffThreshold);
+        map.put(KEY_BACKOFF_BASE_MS, backoffBaseMs);
+        map.put(KEY_BACKOFF_MAX_MS, backoffMaxMs);
+        map.put(KEY_STARTUP_CRASH_THRESHOLD, startupCrashThreshold);
+        map.put(KEY_STARTUP_CRASH_WINDOW_MS, startupCrashWindowMs);
+        map.put(KEY_HANG_TIMEOUT_MS, hangTimeoutMs);
+        map.put(KEY_LOG_LEVEL, logLevel);
+        return map;
+    }
+}
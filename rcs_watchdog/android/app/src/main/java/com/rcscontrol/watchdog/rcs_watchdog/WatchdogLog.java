@@ -0,0 +1,220 @@
+package com.rcscontrol.watchdog.rcs_watchdog;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 와치독 구조화 로그
+ *
+ * 이벤트는 항상 플라이트 레코더(링 버퍼)에 기록하고, 설정된 로그 레벨 이상일 때만 문자열을 만들어 logcat 에 출력함.
+ * 메인 앱 종료나 응답 없음이 감지되면 링 버퍼 내용과 와치독의 최근 로그를 장애 파일로 저장함.
+ * 다른 앱의 logcat 은 READ_LOGS 없이는 보이지 않으므로, 메인 앱이 다시 시작하며 종료 사유와 함께 보낸
+ * 직전 프로세스의 로그(앱은 자신의 로그를 읽을 수 있음)를 같은 디렉토리에 main_app_*.txt 로 저장함.
+ */
+public final class WatchdogLog {
+    private static final String TAG = "WatchdogService";
+    private static final String INCIDENT_DIR = "incidents";
+    private static final int RECORDER_CAPACITY = 256;
+    private static final int MAX_INCIDENT_FILES = 10;
+    private static final int LOG_TAIL_LINES = 500;
+
+    /**
+     * 구조화 이벤트 (메시지와 값 이름은 출력할 때만 사용)
+     */
+    public enum Event {
+        CHECK("앱 상태 확인", "running", "autoStart"),
+        MAIN_APP_DOWN("메인 앱 종료 감지", "wasRunning", null),
+        MAIN_APP_UP("메인 앱 실행 확인", null, null),
+        MAIN_APP_HUNG("메인 앱 응답 없음 감지", "heartbeatAgeMs", null),
+        STAGGER_SCHEDULED("부팅 후 분산 시작 예약", "delayMs", null),
+        RECOVERY_PLAN("복구 계획", "strategy", RecoveryManager.Strategy.values(), "launchNow"),
+        LAUNCH("메인 앱 시작 요청", "strategy", RecoveryManager.Strategy.values(), "success"),
+        SNAPSHOT_REQUESTED("DB 스냅샷 요청", null, null),
+        SCHEDULE_REPLAY("대기 스케줄 재생 요청", null, null),
+        CONFIG_CHANGED("설정 변경 적용", "autoStart", "checkIntervalMs"),
+        INCIDENT("장애 덤프 저장", null, null);
+
+        final String message;
+        final String name1;
+        final Enum<?>[] values1; // 첫 번째 값이 열거형 순서값이면 출력할 때 이름으로 표시
+        final String name2;
+
+        Event(String message, String name1, String name2) {
+            this(message, name1, null, name2);
+        }
+
+        Event(String message, String name1, Enum<?>[] values1, String name2) {
+            this.message = message;
+            this.name1 = name1;
+            this.values1 = values1;
+            this.name2 = name2;
+        }
+    }
+
+    private static final FlightRecorder recorder = new FlightRecorder(RECORDER_CAPACITY);
+    private static volatile int minLevel = Log.INFO;
+    private static ExecutorService dumpExecutor;
+
+    private WatchdogLog() {
+    }
+
+    public static void setLevel(int level) {
+        minLevel = level;
+    }
+
+    public static void event(int level, Event event) {
+        event(level, event, 0, 0);
+    }
+
+    public static void event(int level, Event event, long value1) {
+        event(level, event, value1, 0);
+    }
+
+    /**
+     * 이벤트 기록 - 레벨이 꺼져 있으면 링 버퍼 기록 외에는 아무 비용도 들지 않음
+     */
+    public static void event(int level, Event event, long value1, long value2) {
+        recorder.record(event, value1, value2);
+        if (level >= minLevel) {
+            Log.println(level, TAG, format(event, value1, value2));
+        }
+    }
+
+    static String format(Event event, long value1, long value2) {
+        if (event == null) return "";
+
+        StringBuilder sb = new StringBuilder(48).append(event.message);
+        if (event.name1 != null) {
+            sb.append(' ').append(event.name1).append('=');
+            if (event.values1 != null && value1 >= 0 && value1 < event.values1.length) {
+                sb.append(event.values1[(int) value1].name());
+            } else {
+                sb.append(value1);
+            }
+        }
+        if (event.name2 != null) sb.append(' ').append(event.name2).append('=').append(value2);
+        return sb.toString();
+    }
+
+    /**
+     * 링 버퍼를 고정하고 메인 앱 최근 로그와 함께 장애 파일로 저장 (백그라운드)
+     */
+    public static synchronized void dumpIncident(Context context, String reason) {
+        final String events = recorder.freeze();
+        final File dir = new File(context.getFilesDir(), INCIDENT_DIR);
+        final String configText = WatchdogConfig.get(context).toMap().toString();
+        final long now = System.currentTimeMillis();
+
+        if (dumpExecutor == null) {
+            dumpExecutor = Executors.newSingleThreadExecutor();
+        }
+        dumpExecutor.execute(() -> {
+            try {
+                if (!dir.exists() && !dir.mkdirs()) return;
+
+                String stamp = new SimpleDateFormat("yyyyMMdd_HHmmss_SSS", Locale.US).format(new Date(now));
+                File file = new File(dir, "incident_" + stamp + ".txt");
+                try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                    out.write("reason: " + reason + "\n");
+                    out.write("time: " + new Date(now) + "\n");
+                    out.write("config: " + configText + "\n\n");
+                    out.write("--- flight recorder ---\n");
+                    out.write(events);
+                    out.write("\n--- watchdog log tail ---\n");
+                    writeLogTail(out);
+                    out.write("\n(메인 앱 로그는 메인 앱이 다시 시작하며 보고하면 main_app_*.txt 로 저장됨)\n");
+                }
+
+                pruneIncidents(dir, "incident_");
+                event(Log.WARN, Event.INCIDENT);
+                Log.w(TAG, "장애 덤프 저장됨: " + file.getName() + " (" + reason + ")");
+            } catch (Exception e) {
+                Log.e(TAG, "장애 덤프 저장 실패: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * 메인 앱이 보고한 직전 프로세스의 로그 저장 (백그라운드, MainAppCommandReceiver 에서 호출)
+     */
+    public static synchronized void saveMainAppLog(Context context, String exitInfo, long exitTimestamp, String logTail) {
+        final File dir = new File(context.getFilesDir(), INCIDENT_DIR);
+
+        if (dumpExecutor == null) {
+            dumpExecutor = Executors.newSingleThreadExecutor();
+        }
+        dumpExecutor.execute(() -> {
+            try {
+                if (!dir.exists() && !dir.mkdirs()) return;
+
+                String stamp = new SimpleDateFormat("yyyyMMdd_HHmmss_SSS", Locale.US).format(new Date(exitTimestamp));
+                File file = new File(dir, "main_app_" + stamp + ".txt");
+                try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                    out.write("exit: " + exitInfo + "\n");
+                    out.write("time: " + new Date(exitTimestamp) + "\n\n");
+                    out.write("--- main app log tail ---\n");
+                    out.write(logTail);
+                }
+
+                pruneIncidents(dir, "main_app_");
+                Log.w(TAG, "메인 앱 로그 저장됨: " + file.getName());
+            } catch (Exception e) {
+                Log.e(TAG, "메인 앱 로그 저장 실패: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * 와치독의 최근 logcat 줄 기록 (일반 앱은 자신의 로그만 읽을 수 있음)
+     */
+    private static void writeLogTail(Writer out) {
+        Process process = null;
+        try {
+            process = Runtime.getRuntime().exec(new String[] {
+                    "logcat", "-d", "-v", "threadtime", "-t", String.valueOf(LOG_TAIL_LINES)});
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    out.write(line);
+                    out.write('\n');
+                }
+            }
+        } catch (Exception e) {
+            try {
+                out.write("(logcat 읽기 실패: " + e.getMessage() + ")\n");
+            } catch (Exception ignored) {
+                // 덤프 자체는 계속 진행
+            }
+        } finally {
+            if (process != null) process.destroy();
+        }
+    }
+
+    private static void pruneIncidents(File dir, String prefix) {
+        File[] files = dir.listFiles((d, name) -> name.startsWith(prefix));
+        if (files == null || files.length <= MAX_INCIDENT_FILES) return;
+
+        // 파일 이름의 시각 순으로 정렬해 오래된 것부터 삭제
+        Arrays.sort(files, (a, b) -> a.getName().compareTo(b.getName()));
+        for (int i = 0; i < files.length - MAX_INCIDENT_FILES; i++) {
+            if (!files[i].delete()) {
+                Log.w(TAG, "오래된 장애 덤프 삭제 실패: " + files[i].getName());
+            }
+        }
+    }
+}
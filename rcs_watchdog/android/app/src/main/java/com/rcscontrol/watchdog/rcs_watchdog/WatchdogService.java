@@ -12,24 +12,50 @@ import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Handler;
 import android.os.IBinder;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.core.app.NotificationCompat;
 
+import java.util.Collections;
 import java.util.List;
 
-import android.content.SharedPreferences;
-
 /**
  * 단순화된 와치독 서비스 - RCS컨트롤 앱 자동 실행 기능 추가
  */
 public class WatchdogService extends Service {
     private static final String TAG = "WatchdogService";
     private static final int NOTIFICATION_ID = 1;
-    private static final String MAIN_APP_PACKAGE = "com.example.my_app"; // RCS 컨트롤 앱 패키지명
-    private static final long CHECK_INTERVAL = 30 * 1000; // 30초마다 확인
+    static final String MAIN_APP_PACKAGE = "com.example.my_app"; // RCS 컨트롤 앱 기본 패키지명 (설정으로 변경 가능)
+    private static final String EXTRA_RECOVERY_CLEANUP = "rcs_recovery_cleanup"; // 메인 앱 캐시 정리 요청
+    private static final String EXTRA_RECOVERY_RESTORE = "rcs_recovery_restore"; // 메인 앱 DB 스냅샷 복원 요청
+    private static final String ACTION_SNAPSHOT_DATABASES = "com.example.my_app.action.SNAPSHOT_DATABASES"; // 메인 앱 DB 스냅샷 갱신 요청
+    private static final String ACTION_RECOVERY_KILL = "com.example.my_app.action.RECOVERY_KILL"; // 메인 앱 자체 종료 요청
+    private static final long KILL_SETTLE_DELAY = 2 * 1000L; // 프로세스 정리 후 시작까지 대기
+    private static final String ACTION_CHECK_MAIN_APP = "CHECK_MAIN_APP"; // 다음 주기를 기다리지 않고 바로 확인
     
     private Handler handler;
     private Runnable checkRunnable;
+    private boolean mainAppWasRunning = false; // 직전 확인 시 메인 앱 실행 여부
+    private long mainAppUpSince = 0; // 메인 앱 실행을 확인했거나 다시 시작시킨 시각 (elapsedRealtime 기준, 행 판단 기준)
+    private boolean initialLaunch = true; // 서비스 시작 후 아직 메인 앱을 확인하거나 시작시킨 적 없음 (부팅 시 첫 실행은 장애 아님)
+    private RecoveryManager recoveryManager;
+    private long lastSnapshotAt = 0;
+    private long staggeredLaunchAt = -1; // 부팅 후 첫 실행 예정 시각 (elapsedRealtime 기준, -1 이면 분산 없음)
+    private Runnable staggeredLaunchRunnable;
+    
+    // 설정 변경 시 서비스 재시작 없이 바로 적용
+    private final WatchdogConfig.Listener configListener = (previous, current) -> {
+        WatchdogLog.setLevel(current.logLevel);
+        WatchdogLog.event(Log.INFO, WatchdogLog.Event.CONFIG_CHANGED,
+                current.autoStartEnabled ? 1 : 0, current.checkIntervalMs);
+        
+        if (previous == null || previous.autoStartEnabled != current.autoStartEnabled) {
+            applyAutoStartSetting(current.autoStartEnabled);
+        } else if (previous.checkIntervalMs != current.checkIntervalMs && checkRunnable != null) {
+            // 새 확인 주기로 타이머 재시작
+            startCheckTask();
+        }
+    };
     
     @Override
     public void onCreate() {
@@ -38,6 +64,10 @@ public class WatchdogService extends Service {
         
         // 핸들러 초기화
         handler = new Handler();
+        recoveryManager = new RecoveryManager(this);
+        staggeredLaunchAt = computeStaggeredLaunchAt();
+        WatchdogConfig.addListener(configListener);
+        WatchdogLog.setLevel(WatchdogConfig.get(this).logLevel);
         
         // 최소한의 포그라운드 서비스 시작
         try {
@@ -47,6 +77,9 @@ public class WatchdogService extends Service {
             
             // 주기적 확인 작업 시작
             startCheckTask();
+            
+            // 놓친 스케줄 처리 및 스케줄 알람 재설정 (재부팅 시 알람이 사라지므로)
+            ScheduleMirror.scheduleNext(this);
         } catch (Exception e) {
             Log.e(TAG, "포그라운드 서비스 시작 중 오류 발생: " + e.getMessage(), e);
         }
@@ -63,12 +96,9 @@ public class WatchdogService extends Service {
                 checkRunnable = null;
             }
             
-            // 자동 시작 설정 확인
-            SharedPreferences prefs = getSharedPreferences("watchdog_prefs", MODE_PRIVATE);
-            boolean autoStartEnabled = prefs.getBoolean("auto_start_enabled", true);
-            
             // 자동 시작이 비활성화된 경우 타이머를 시작하지 않음
-            if (!autoStartEnabled) {
+            WatchdogConfig config = WatchdogConfig.get(this);
+            if (!config.autoStartEnabled) {
                 Log.i(TAG, "자동 시작이 비활성화되어 있어 모니터링 타이머를 시작하지 않음");
                 return;
             }
@@ -78,17 +108,14 @@ public class WatchdogService extends Service {
                 @Override
                 public void run() {
                     try {
-                        // 설정 다시 확인
-                        SharedPreferences prefs = getSharedPreferences("watchdog_prefs", MODE_PRIVATE);
-                        boolean stillEnabled = prefs.getBoolean("auto_start_enabled", true);
-                        
-                        if (stillEnabled) {
+                        // 설정 다시 확인 (메모리의 설정 스냅샷)
+                        if (WatchdogConfig.get(WatchdogService.this).autoStartEnabled) {
                             // RCS컨트롤 앱 실행 상태 확인
                             checkAndStartMainApp();
                             
                             // 다음 실행 예약
                             if (handler != null && checkRunnable != null) {
-                                handler.postDelayed(checkRunnable, CHECK_INTERVAL);
+                                handler.postDelayed(checkRunnable, WatchdogConfig.get(WatchdogService.this).checkIntervalMs);
                             }
                         }
                     } catch (Exception e) {
@@ -96,7 +123,7 @@ public class WatchdogService extends Service {
                         
                         // 오류가 발생해도 다음 확인 계속 진행
                         if (handler != null && checkRunnable != null) {
-                            handler.postDelayed(checkRunnable, CHECK_INTERVAL);
+                            handler.postDelayed(checkRunnable, WatchdogConfig.get(WatchdogService.this).checkIntervalMs);
                         }
                     }
                 }
@@ -105,7 +132,7 @@ public class WatchdogService extends Service {
             // 작업 즉시 시작
             if (handler != null && checkRunnable != null) {
                 handler.post(checkRunnable);
-                Log.i(TAG, "RCS컨트롤 앱 주기적 확인 시작됨 (간격: " + (CHECK_INTERVAL / 1000) + "초)");
+                Log.i(TAG, "RCS컨트롤 앱 주기적 확인 시작됨 (간격: " + (config.checkIntervalMs / 1000) + "초)");
             }
         } catch (Exception e) {
             Log.e(TAG, "타이머 시작 중 오류: " + e.getMessage(), e);
@@ -118,18 +145,71 @@ public class WatchdogService extends Service {
     private void checkAndStartMainApp() {
         try {
             // 자동 시작 설정 확인
-            SharedPreferences prefs = getSharedPreferences("watchdog_prefs", MODE_PRIVATE);
-            boolean autoStartEnabled = prefs.getBoolean("auto_start_enabled", true);
+            WatchdogConfig config = WatchdogConfig.get(this);
+            boolean autoStartEnabled = config.autoStartEnabled;
             
-            boolean isRunning = isMainAppRunning();
-            Log.i(TAG, "RCS컨트롤 앱 상태 확인: " + (isRunning ? "실행 중" : "실행되지 않음"));
+            // 평상시 확인 결과는 플라이트 레코더에만 남김 (DEBUG 레벨에서만 출력)
+            boolean isRunning = isMainAppRunning(this);
+            WatchdogLog.event(Log.DEBUG, WatchdogLog.Event.CHECK, isRunning ? 1 : 0, autoStartEnabled ? 1 : 0);
             
             // 앱이 실행 중이 아니고 자동 시작이 활성화되어 있으면 시작
-            if (!isRunning && autoStartEnabled) {
-                startMainApp();
-            } else if (!isRunning) {
+            RecoveryManager.Plan plan = null;
+            if (!isRunning && autoStartEnabled && isStaggerPending()) {
+                scheduleStaggeredLaunch();
+            } else if (!isRunning && autoStartEnabled) {
+                plan = recoverMainApp();
+            } else if (!isRunning && mainAppWasRunning) {
                 Log.i(TAG, "자동 시작 기능이 비활성화되어 앱 시작하지 않음");
+            } else if (isRunning && autoStartEnabled && isMainAppHung(config)) {
+                // 프로세스는 살아 있지만 하트비트가 멈춤 - 정리 후 다시 시작
+                plan = recoverHungMainApp();
+            }
+            
+            if (!isRunning && mainAppWasRunning) {
+                WatchdogLog.event(Log.WARN, WatchdogLog.Event.MAIN_APP_DOWN, 1);
+            } else if (isRunning && !mainAppWasRunning) {
+                WatchdogLog.event(Log.INFO, WatchdogLog.Event.MAIN_APP_UP);
+            }
+            
+            // 장애가 시작되거나 복구 방법이 바뀌면 (시작 직후 반복 종료, 응답 없음 포함) 직전 상황을 장애 파일로 저장
+            if (plan != null && plan.newIncident && !initialLaunch) {
+                WatchdogLog.dumpIncident(this, (isRunning ? "main app hung" : "main app down")
+                        + " (" + plan.cause + " -> " + plan.strategy + ")");
+            } else if (plan == null && !isRunning && mainAppWasRunning) {
+                WatchdogLog.dumpIncident(this, "main app down");
             }
+            if (isRunning || plan != null) {
+                initialLaunch = false;
+            }
+            
+            if (!isRunning) {
+                mainAppUpSince = 0;
+            } else if (mainAppUpSince == 0) {
+                mainAppUpSince = SystemClock.elapsedRealtime();
+            }
+            
+            // 응답 없음으로 정리한 주기에는 복구 완료로 보지 않음
+            if (isRunning && plan == null) {
+                recoveryManager.onMainAppUp();
+                
+                // 안정적으로 실행 중일 때만 메인 앱에 DB 스냅샷 갱신 요청 (바뀐 페이지만 기록)
+                long now = System.currentTimeMillis();
+                if (recoveryManager.isStable() && now - lastSnapshotAt >= config.snapshotIntervalMs) {
+                    lastSnapshotAt = now;
+                    requestDbSnapshot();
+                }
+            }
+            
+            if (isRunning && mainAppWasRunning && ScheduleMirror.hasPending(this)) {
+                // 메인 앱이 한 주기 이상 실행 중이면 (채널 준비 완료) 대기 중인 스케줄 재생
+                WatchdogLog.event(Log.INFO, WatchdogLog.Event.SCHEDULE_REPLAY);
+                if (ScheduleMirror.replayPending(this) && plan == null) {
+                    // 프로세스만 남고 화면이 종료되어 (뒤로 가기 등) 실행 요청을 받지 못함 - 화면을 다시 띄움
+                    Log.w(TAG, "스케줄 실행 확인 응답 없음 - 메인 앱 화면 다시 시작");
+                    startMainApp(RecoveryManager.Strategy.RELAUNCH);
+                }
+            }
+            mainAppWasRunning = isRunning;
         } catch (Exception e) {
             Log.e(TAG, "앱 상태 확인 중 오류: " + e.getMessage(), e);
         }
@@ -138,15 +218,15 @@ public class WatchdogService extends Service {
     /**
      * RCS컨트롤 앱이 실행 중인지 확인
      */
-    private boolean isMainAppRunning() {
+    static boolean isMainAppRunning(Context context) {
         try {
-            ActivityManager am = (ActivityManager) getSystemService(Context.ACTIVITY_SERVICE);
+            ActivityManager am = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
             if (am == null) return false;
             
             List<ActivityManager.RunningAppProcessInfo> processes = am.getRunningAppProcesses();
             if (processes != null) {
                 for (ActivityManager.RunningAppProcessInfo process : processes) {
-                    if (MAIN_APP_PACKAGE.equals(process.processName)) {
+                    if (WatchdogConfig.get(context).mainAppPackage.equals(process.processName)) {
                         return true;
                     }
                 }
@@ -160,23 +240,163 @@ public class WatchdogService extends Service {
     }
     
     /**
-     * RCS컨트롤 앱 시작
+     * 메인 앱 프로세스는 있지만 하트비트가 제한 시간 이상 멈췄는지 확인
+     * (실행 확인 직후에는 이전 실행의 오래된 하트비트로 판단하지 않도록 제한 시간만큼 기다림)
+     */
+    private boolean isMainAppHung(WatchdogConfig config) {
+        long now = SystemClock.elapsedRealtime();
+        if (mainAppUpSince == 0 || now - mainAppUpSince < config.hangTimeoutMs) return false;
+        
+        // 하트비트를 보낸 적이 없거나 정상 종료로 지워진 경우는 판단하지 않음
+        long lastBeatAt = MainAppHeartbeat.lastBeatAt();
+        if (lastBeatAt <= 0 || now - lastBeatAt < config.hangTimeoutMs) return false;
+        
+        WatchdogLog.event(Log.WARN, WatchdogLog.Event.MAIN_APP_HUNG, now - lastBeatAt);
+        return true;
+    }
+    
+    /**
+     * 부팅 직후라면 장비별 분산 시작 시각 계산 (정전 복구 시 장비 전체 동시 시작 방지)
      */
-    private void startMainApp() {
+    private long computeStaggeredLaunchAt() {
         try {
-            Log.i(TAG, "RCS컨트롤 앱 시작 시도...");
+            long elapsed = SystemClock.elapsedRealtime();
+            
+            // 부팅 직후가 아니면 (서비스 재시작 등) 분산하지 않음
+            if (elapsed >= FleetStagger.BOOT_DETECTION_LIMIT) return -1;
             
+            WatchdogConfig config = WatchdogConfig.get(this);
+            long window = FleetStagger.windowFor(config.fleetRecoveryBoundMs, config.bootDelayMs);
+            long offset = FleetStagger.offsetFor(DeviceIdentity.get(this), window);
+            long launchAt = FleetStagger.launchAt(elapsed, config.bootDelayMs, offset);
+            Log.i(TAG, "부팅 후 메인 앱 첫 실행 분산: 서비스 시작 " + (launchAt - elapsed) / 1000 + "초 후");
+            return launchAt;
+        } catch (Exception e) {
+            Log.e(TAG, "분산 시작 시각 계산 중 오류: " + e.getMessage(), e);
+            return -1;
+        }
+    }
+    
+    private boolean isStaggerPending() {
+        if (staggeredLaunchAt < 0) return false;
+        if (SystemClock.elapsedRealtime() >= staggeredLaunchAt) {
+            staggeredLaunchAt = -1;
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * 분산 시작 시각에 정확히 메인 앱을 시작하도록 예약 (확인 주기와 무관하게)
+     */
+    private void scheduleStaggeredLaunch() {
+        if (staggeredLaunchRunnable != null || handler == null) return;
+        
+        staggeredLaunchRunnable = () -> {
+            staggeredLaunchRunnable = null;
+            staggeredLaunchAt = -1;
+            checkAndStartMainApp();
+        };
+        long delay = staggeredLaunchAt - SystemClock.elapsedRealtime();
+        handler.postDelayed(staggeredLaunchRunnable, Math.max(0, delay));
+        WatchdogLog.event(Log.INFO, WatchdogLog.Event.STAGGER_SCHEDULED, delay);
+    }
+    
+    /**
+     * 종료 사유에 맞는 복구 방법으로 RCS컨트롤 앱 재시작
+     */
+    private RecoveryManager.Plan recoverMainApp() {
+        return executePlan(recoveryManager.onMainAppDown());
+    }
+    
+    /**
+     * 응답 없는 RCS컨트롤 앱을 정리하고 다시 시작
+     */
+    private RecoveryManager.Plan recoverHungMainApp() {
+        RecoveryManager.Plan plan = executePlan(recoveryManager.onMainAppHung());
+        mainAppUpSince = SystemClock.elapsedRealtime();
+        return plan;
+    }
+    
+    private RecoveryManager.Plan executePlan(RecoveryManager.Plan plan) {
+        WatchdogLog.event(Log.INFO, WatchdogLog.Event.RECOVERY_PLAN, plan.strategy.ordinal(), plan.launchNow ? 1 : 0);
+        if (!plan.launchNow) return plan;
+        
+        switch (plan.strategy) {
+            case KILL_THEN_START:
+                // 응답 없는 프로세스 정리 후 시작 (프로세스가 완전히 내려가도록 잠시 대기)
+                killMainApp();
+                if (handler != null) {
+                    handler.postDelayed(() -> startMainApp(plan.strategy), KILL_SETTLE_DELAY);
+                }
+                break;
+                
+            default:
+                // 캐시 정리, DB 복원은 메인 앱이 데이터를 열기 전에 직접 수행 (시작 인텐트로 요청)
+                startMainApp(plan.strategy);
+                break;
+        }
+        return plan;
+    }
+    
+    /**
+     * RCS컨트롤 앱 프로세스 정리
+     * 포그라운드 프로세스는 killBackgroundProcesses 로 종료되지 않으므로, 메인 앱이 메인 스레드와 별도로
+     * 받는 종료 요청을 먼저 보냄 (메인 스레드가 멈춰 있어도 처리됨)
+     */
+    private void killMainApp() {
+        String mainAppPackage = WatchdogConfig.get(this).mainAppPackage;
+        try {
+            Intent intent = new Intent(ACTION_RECOVERY_KILL);
+            intent.setPackage(mainAppPackage);
+            sendBroadcast(intent, ScheduleMirror.PERMISSION_WATCHDOG_BRIDGE);
+            
+            ActivityManager am = (ActivityManager) getSystemService(Context.ACTIVITY_SERVICE);
+            if (am != null) {
+                am.killBackgroundProcesses(mainAppPackage);
+            }
+            Log.i(TAG, "RCS컨트롤 앱 프로세스 정리 요청됨");
+        } catch (Exception e) {
+            Log.e(TAG, "RCS컨트롤 앱 프로세스 정리 실패: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 메인 앱에 DB 스냅샷 갱신 요청 (데이터 디렉토리는 메인 앱만 접근 가능)
+     */
+    private void requestDbSnapshot() {
+        try {
+            Intent intent = new Intent(ACTION_SNAPSHOT_DATABASES);
+            intent.setPackage(WatchdogConfig.get(this).mainAppPackage);
+            sendBroadcast(intent, ScheduleMirror.PERMISSION_WATCHDOG_BRIDGE);
+            WatchdogLog.event(Log.DEBUG, WatchdogLog.Event.SNAPSHOT_REQUESTED);
+        } catch (Exception e) {
+            Log.e(TAG, "DB 스냅샷 요청 실패: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * RCS컨트롤 앱 시작 (복구 방법에 따라 메인 앱이 시작 시 수행할 정리 작업 전달)
+     */
+    private void startMainApp(RecoveryManager.Strategy strategy) {
+        try {
             // 앱이 설치되어 있는지 확인
             PackageManager pm = getPackageManager();
-            Intent launchIntent = pm.getLaunchIntentForPackage(MAIN_APP_PACKAGE);
+            Intent launchIntent = pm.getLaunchIntentForPackage(WatchdogConfig.get(this).mainAppPackage);
             
             if (launchIntent != null) {
                 // 새 태스크로 시작
                 launchIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+                if (strategy == RecoveryManager.Strategy.CLEANUP_THEN_START) {
+                    launchIntent.putExtra(EXTRA_RECOVERY_CLEANUP, true);
+                } else if (strategy == RecoveryManager.Strategy.RESTORE_THEN_START) {
+                    launchIntent.putExtra(EXTRA_RECOVERY_RESTORE, true);
+                }
                 startActivity(launchIntent);
-                Log.i(TAG, "RCS컨트롤 앱 시작 성공");
+                WatchdogLog.event(Log.INFO, WatchdogLog.Event.LAUNCH, strategy.ordinal(), 1);
             } else {
-                Log.e(TAG, "RCS컨트롤 앱이 설치되어 있지 않음");
+                // 설치되어 있지 않음
+                WatchdogLog.event(Log.ERROR, WatchdogLog.Event.LAUNCH, strategy.ordinal(), 0);
             }
         } catch (Exception e) {
             Log.e(TAG, "RCS컨트롤 앱 시작 실패: " + e.getMessage(), e);
@@ -195,21 +415,66 @@ public class WatchdogService extends Service {
         if (intent != null && "UPDATE_AUTO_START".equals(intent.getAction())) {
             boolean enabled = intent.getBooleanExtra("auto_start_enabled", true);
             updateAutoStartSetting(enabled);
+        } else if (intent != null && ACTION_CHECK_MAIN_APP.equals(intent.getAction())) {
+            checkMainAppNow();
         }
         
         // 서비스가 종료되면 재시작
         return START_STICKY;
     }
     
+    /**
+     * 메인 앱이 필요한 시점(스케줄 알람 등)에 서비스에 즉시 확인 요청
+     */
+    static void requestMainAppCheck(Context context) {
+        try {
+            Intent intent = new Intent(context, WatchdogService.class);
+            intent.setAction(ACTION_CHECK_MAIN_APP);
+            context.startService(intent);
+        } catch (Exception e) {
+            Log.e(TAG, "메인 앱 확인 요청 실패: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 주기를 기다리지 않고 바로 확인 (부팅 분산, 복구 정책은 평소 확인과 동일하게 적용)
+     */
+    private void checkMainAppNow() {
+        if (handler == null || checkRunnable == null) {
+            Log.i(TAG, "모니터링이 중지되어 있어 메인 앱 즉시 확인 생략");
+            return;
+        }
+        
+        // 방금 시작시킨 메인 앱이 올라오는 중이면 다음 주기 확인에 맡김 (시작 중 크래시로 오판하지 않도록)
+        if (recoveryManager.isLaunchInFlight()) return;
+        
+        handler.removeCallbacks(checkRunnable);
+        handler.post(checkRunnable);
+    }
+    
     /**
      * 자동 시작 설정 업데이트
      */
     private void updateAutoStartSetting(boolean enabled) {
         try {
-            // 설정 저장
-            SharedPreferences prefs = getSharedPreferences("watchdog_prefs", MODE_PRIVATE);
-            prefs.edit().putBoolean("auto_start_enabled", enabled).apply();
+            // 설정 저장 (값이 바뀌면 설정 리스너가 바로 적용함)
+            WatchdogConfig.update(this, Collections.singletonMap(WatchdogConfig.KEY_AUTO_START_ENABLED, enabled));
             
+            // 같은 값이라 리스너가 호출되지 않았는데 타이머 상태가 다를 때만 맞춤
+            // (다시 적용하면 즉시 확인이 한 번 더 실행되어 방금 시작시킨 앱을 시작 중 크래시로 오판함)
+            if (enabled != (checkRunnable != null)) {
+                applyAutoStartSetting(enabled);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "자동 시작 설정 업데이트 중 오류: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 자동 시작 설정에 맞춰 모니터링 타이머 시작/중지
+     */
+    private void applyAutoStartSetting(boolean enabled) {
+        try {
             Log.i(TAG, "자동 시작 설정 업데이트됨: " + (enabled ? "활성화" : "비활성화"));
             
             // 비활성화 상태에서는 타이머 중지
@@ -224,7 +489,7 @@ public class WatchdogService extends Service {
                 startCheckTask();
             }
         } catch (Exception e) {
-            Log.e(TAG, "자동 시작 설정 업데이트 중 오류: " + e.getMessage(), e);
+            Log.e(TAG, "자동 시작 설정 적용 중 오류: " + e.getMessage(), e);
         }
     }
     
@@ -239,10 +504,16 @@ public class WatchdogService extends Service {
         
         // 실행 중인 작업 제거
         try {
+            WatchdogConfig.removeListener(configListener);
+            
             if (handler != null && checkRunnable != null) {
                 handler.removeCallbacks(checkRunnable);
                 checkRunnable = null;
             }
+            if (handler != null && staggeredLaunchRunnable != null) {
+                handler.removeCallbacks(staggeredLaunchRunnable);
+                staggeredLaunchRunnable = null;
+            }
             handler = null;
         } catch (Exception e) {
             Log.e(TAG, "서비스 종료 중 오류: " + e.getMessage(), e);
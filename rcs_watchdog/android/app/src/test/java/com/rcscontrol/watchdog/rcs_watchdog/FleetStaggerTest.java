@@ -0,0 +1,126 @@
+package com.rcscontrol.watchdog.rcs_watchdog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * 정전 복구 시 장비별 시작 분산 검증
+ *
+ * 각 장비는 시작 직후 BURST_SECONDS 동안 REQUESTS_PER_START 개의 요청(PDU, 프로젝터, PC 조회)을
+ * 고르게 보낸다고 가정하고, 장비 수별로 복구 한도와 초당 최대 요청 수를 확인함.
+ * 실제 시작 시각은 장비마다 다른 부팅 ~ BOOT_COMPLETED 시간(BOOT_COMPLETED_MIN ~ MAX)을 거쳐 계산함.
+ */
+public class FleetStaggerTest {
+    private static final int[] FLEET_SIZES = {10, 50, 100, 250, 500, 1000};
+    private static final long BOOT_DELAY = BootCompletedReceiver.BOOT_DELAY;
+    private static final int REQUESTS_PER_START = 20;
+    private static final int BURST_SECONDS = 3;
+    private static final long BOOT_COMPLETED_MIN = 20 * 1000L;
+    private static final long BOOT_COMPLETED_MAX = 40 * 1000L;
+
+    // 같은 제조사의 연속된 MAC (분산이 가장 어려운 경우)
+    private static String macFor(int i) {
+        return String.format(Locale.ROOT, "00:1a:2b:%02x:%02x:%02x", (i >> 16) & 0xff, (i >> 8) & 0xff, i & 0xff);
+    }
+
+    // 장비 i 의 부팅 후 메인 앱 시작 시각 (WatchdogService.computeStaggeredLaunchAt 와 같은 계산)
+    private static long startFor(int i, long window, Random bootTimes) {
+        long bootCompleted = BOOT_COMPLETED_MIN
+                + (long) (bootTimes.nextDouble() * (BOOT_COMPLETED_MAX - BOOT_COMPLETED_MIN));
+        long serviceStartedAt = bootCompleted + BOOT_DELAY;
+        return FleetStagger.launchAt(serviceStartedAt, BOOT_DELAY, FleetStagger.offsetFor(macFor(i), window));
+    }
+
+    @Test
+    public void lastStartFitsRecoveryBound() {
+        long window = FleetStagger.windowFor(FleetStagger.DEFAULT_RECOVERY_BOUND, BOOT_DELAY);
+        assertTrue(window > 0);
+
+        Random bootTimes = new Random(1);
+        for (int fleetSize : FLEET_SIZES) {
+            long lastStart = 0;
+            for (int i = 0; i < fleetSize; i++) {
+                lastStart = Math.max(lastStart, startFor(i, window, bootTimes));
+            }
+
+            assertTrue("장비 " + fleetSize + "대: 마지막 시작 " + lastStart + "ms",
+                    lastStart + FleetStagger.APP_START_BUDGET <= FleetStagger.DEFAULT_RECOVERY_BOUND);
+        }
+    }
+
+    @Test
+    public void startsAreSpreadAcrossSeconds() {
+        long window = FleetStagger.windowFor(FleetStagger.DEFAULT_RECOVERY_BOUND, BOOT_DELAY);
+        int windowSeconds = (int) (window / 1000);
+
+        Random bootTimes = new Random(2);
+        for (int fleetSize : FLEET_SIZES) {
+            int[] startsPerSecond = new int[(int) (FleetStagger.BOOT_DETECTION_LIMIT / 1000) + windowSeconds];
+            for (int i = 0; i < fleetSize; i++) {
+                startsPerSecond[(int) (startFor(i, window, bootTimes) / 1000)]++;
+            }
+
+            int distinct = 0;
+            int peak = 0;
+            for (int count : startsPerSecond) {
+                if (count > 0) distinct++;
+                peak = Math.max(peak, count);
+            }
+
+            // 서로 다른 시작 초가 장비 수(구간보다 많으면 구간 초 수)의 절반 이상
+            int expectedDistinct = Math.min(fleetSize, windowSeconds) / 2;
+            assertTrue("장비 " + fleetSize + "대: 시작 초 " + distinct + "개", distinct >= expectedDistinct);
+
+            // 같은 초에 시작하는 장비가 균등 분산 평균의 3배 + 2 이하
+            int expectedPeak = 3 * ((fleetSize + windowSeconds - 1) / windowSeconds) + 2;
+            assertTrue("장비 " + fleetSize + "대: 초당 최대 시작 " + peak, peak <= expectedPeak);
+        }
+    }
+
+    @Test
+    public void staggeringLowersPeakLoad() {
+        long window = FleetStagger.windowFor(FleetStagger.DEFAULT_RECOVERY_BOUND, BOOT_DELAY);
+
+        for (int fleetSize : FLEET_SIZES) {
+            int slots = (int) (window / 1000) + BURST_SECONDS + 1;
+            double[] load = new double[slots];
+            for (int i = 0; i < fleetSize; i++) {
+                int slot = (int) (FleetStagger.offsetFor(macFor(i), window) / 1000);
+                for (int s = 0; s < BURST_SECONDS; s++) {
+                    load[slot + s] += (double) REQUESTS_PER_START / BURST_SECONDS;
+                }
+            }
+
+            double peak = 0;
+            for (double l : load) peak = Math.max(peak, l);
+            double syncPeak = (double) fleetSize * REQUESTS_PER_START / BURST_SECONDS;
+
+            // 동시 시작 대비 최대 부하가 장비 10대 이상에서는 절반 이하
+            assertTrue("장비 " + fleetSize + "대: 분산 " + peak + " / 동시 " + syncPeak, peak <= syncPeak / 2);
+        }
+    }
+
+    @Test
+    public void offsetIsStablePerDevice() {
+        long window = FleetStagger.windowFor(FleetStagger.DEFAULT_RECOVERY_BOUND, BOOT_DELAY);
+
+        // 구분자와 대소문자가 달라도 같은 장비는 같은 지연
+        assertEquals(FleetStagger.offsetFor("00:1A:2B:3C:4D:5E", window),
+                FleetStagger.offsetFor("00-1a-2b-3c-4d-5e", window));
+        assertEquals(FleetStagger.offsetFor("00:1a:2b:3c:4d:5e", window),
+                FleetStagger.offsetFor("00:1a:2b:3c:4d:5e", window));
+    }
+
+    @Test
+    public void noStaggerWhenBoundTooSmall() {
+        long window = FleetStagger.windowFor(BOOT_DELAY, BOOT_DELAY);
+
+        assertEquals(0, window);
+        assertEquals(0, FleetStagger.offsetFor(macFor(1), window));
+    }
+}
@@ -0,0 +1,96 @@
+package com.rcscontrol.watchdog.rcs_watchdog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Calendar;
+
+import org.junit.Test;
+
+/**
+ * 스케줄 미러 항목 파싱과 다음 실행 시각 계산
+ */
+public class ScheduleMirrorEntryTest {
+
+    // 2024-01-01 은 월요일
+    private static long at(int day, int hour, int minute) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(2024, Calendar.JANUARY, day, hour, minute, 0);
+        return cal.getTimeInMillis();
+    }
+
+    @Test
+    public void parseReadsFields() {
+        ScheduleMirror.Entry entry = ScheduleMirror.Entry.parse("projector.on|projector|on|08:30|1,2,3,4,5");
+
+        assertEquals("projector.on", entry.id);
+        assertEquals("projector", entry.kind);
+        assertEquals("on", entry.action);
+        assertEquals(8, entry.hour);
+        assertEquals(30, entry.minute);
+        for (int d = 1; d <= 5; d++) assertTrue(entry.days[d]);
+        assertFalse(entry.days[6]);
+        assertFalse(entry.days[7]);
+    }
+
+    @Test
+    public void parseReadsSundayAsZeroOrSeven() {
+        // ScheduleService 는 일요일을 0, PDU/프로젝터 스케줄 서비스는 7 로 저장
+        assertTrue(ScheduleMirror.Entry.parse("pdu.on|pdu|on|09:00|0").days[7]);
+        assertTrue(ScheduleMirror.Entry.parse("pdu_common.on|pdu|on|09:00|7").days[7]);
+    }
+
+    @Test
+    public void parseRejectsMalformed() {
+        assertNull(ScheduleMirror.Entry.parse("pdu.on|pdu|on|09:00"));
+        assertNull(ScheduleMirror.Entry.parse("pdu.on|pdu|on|0900|1"));
+        assertNull(ScheduleMirror.Entry.parse("pdu.on|pdu|on|24:00|1"));
+        assertNull(ScheduleMirror.Entry.parse("pdu.on|pdu|on|09:00|x"));
+    }
+
+    @Test
+    public void nextOccurrenceSameDayLaterTime() {
+        ScheduleMirror.Entry entry = ScheduleMirror.Entry.parse("pdu.on|pdu|on|09:00|1");
+
+        assertEquals(at(1, 9, 0), entry.nextOccurrenceAfter(at(1, 8, 0)));
+    }
+
+    @Test
+    public void nextOccurrenceIsStrictlyAfter() {
+        ScheduleMirror.Entry entry = ScheduleMirror.Entry.parse("pdu.on|pdu|on|09:00|1");
+
+        // 같은 시각은 제외하고 다음 주 월요일
+        assertEquals(at(8, 9, 0), entry.nextOccurrenceAfter(at(1, 9, 0)));
+    }
+
+    @Test
+    public void nextOccurrenceWrapsWeek() {
+        ScheduleMirror.Entry entry = ScheduleMirror.Entry.parse("pdu.off|pdu|off|18:00|1,2");
+
+        // 수요일 이후 첫 실행은 다음 주 월요일
+        assertEquals(at(8, 18, 0), entry.nextOccurrenceAfter(at(3, 12, 0)));
+    }
+
+    @Test
+    public void nextOccurrenceOnSunday() {
+        ScheduleMirror.Entry zero = ScheduleMirror.Entry.parse("pdu.on|pdu|on|10:00|0");
+        ScheduleMirror.Entry seven = ScheduleMirror.Entry.parse("pdu_common.on|pdu|on|10:00|7");
+
+        // 2024-01-07 은 일요일
+        assertEquals(at(7, 10, 0), zero.nextOccurrenceAfter(at(1, 0, 0)));
+        assertEquals(at(7, 10, 0), seven.nextOccurrenceAfter(at(1, 0, 0)));
+
+        // 일요일 실행 후에는 다음 주 일요일
+        assertEquals(at(14, 10, 0), zero.nextOccurrenceAfter(at(7, 10, 0)));
+    }
+
+    @Test
+    public void nextOccurrenceWithoutValidDays() {
+        ScheduleMirror.Entry entry = ScheduleMirror.Entry.parse("pdu.on|pdu|on|10:00|8");
+
+        assertEquals(-1, entry.nextOccurrenceAfter(at(1, 0, 0)));
+    }
+}
@@ -52,6 +52,59 @@ class MyApp extends StatelessWidget {
   }
 }
 
+// 화면에서 변경할 수 있는 감시 설정 (초 단위로 표시, 밀리초로 저장)
+const List<MapEntry<String, String>> _editableSettings = [
+  MapEntry('check_interval_ms', '확인 주기'),
+  MapEntry('hang_timeout_ms', '응답 없음 판단 시간'),
+  MapEntry('boot_delay_ms', '부팅 후 시작 지연'),
+  MapEntry('fleet_recovery_bound_ms', '정전 복구 분산 한도'),
+  MapEntry('stable_period_ms', '안정 실행 판단 시간'),
+];
+
+// 복구 통계 표시 이름 (RecoveryManager.ExitCause / Strategy)
+const Map<String, String> _exitCauseNames = {
+  'CRASH': '크래시',
+  'ANR': '응답 없음',
+  'LOW_MEMORY': '메모리 부족',
+  'USER_KILL': '사용자 종료',
+  'NATIVE_CRASH': '네이티브 크래시',
+  'UNKNOWN': '알 수 없음',
+};
+
+const Map<String, String> _strategyNames = {
+  'RELAUNCH': '즉시 재시작',
+  'KILL_THEN_START': '정리 후 시작',
+  'CLEANUP_THEN_START': '캐시 정리 후 시작',
+  'BACKOFF': '대기 후 시작',
+  'RESTORE_THEN_START': 'DB 복원 후 시작',
+};
+
+// 통계 시간 표시 (1초 미만은 밀리초)
+String _formatMs(dynamic ms) {
+  if (ms is! num) return '-';
+  return ms < 1000 ? '${ms.toInt()}ms' : '${(ms / 1000).toStringAsFixed(1)}초';
+}
+
+// 종료 사유별 횟수 요약 (0회인 사유는 생략)
+String _causeSummary(dynamic causes) {
+  if (causes is! Map) return '기록 없음';
+  final parts = [
+    for (final entry in _exitCauseNames.entries)
+      if (causes[entry.key] is num && causes[entry.key] > 0) '${entry.value} ${causes[entry.key]}회',
+  ];
+  return parts.isEmpty ? '기록 없음' : parts.join(', ');
+}
+
+// 시도한 적이 있는 복구 방법만 (정의 순서대로)
+List<MapEntry<String, Map>> _strategyRows(dynamic strategies) {
+  if (strategies is! Map) return [];
+  return [
+    for (final key in _strategyNames.keys)
+      if (strategies[key] is Map && ((strategies[key] as Map)['attempts'] ?? 0) > 0)
+        MapEntry(key, strategies[key] as Map),
+  ];
+}
+
 class WatchdogHomePage extends StatefulWidget {
   const WatchdogHomePage({super.key});
 
@@ -69,6 +122,47 @@ class _WatchdogHomePageState extends State<WatchdogHomePage> {
     });
   }
   
+  // 설정 값 변경 다이얼로그 (와치독이 범위를 보정한 값으로 다시 표시됨)
+  Future<void> _editSetting(WatchdogProvider provider, MapEntry<String, String> setting) async {
+    final current = provider.config[setting.key];
+    final controller = TextEditingController(
+      text: current is num ? (current ~/ 1000).toString() : '',
+    );
+    
+    final seconds = await showDialog<int>(
+      context: context,
+      builder: (context) => AlertDialog(
+        title: Text(setting.value),
+        content: TextField(
+          controller: controller,
+          keyboardType: TextInputType.number,
+          decoration: const InputDecoration(suffixText: '초'),
+        ),
+        actions: [
+          TextButton(
+            onPressed: () => Navigator.of(context).pop(),
+            child: const Text('취소'),
+          ),
+          TextButton(
+            onPressed: () => Navigator.of(context).pop(int.tryParse(controller.text.trim())),
+            child: const Text('저장'),
+          ),
+        ],
+      ),
+    );
+    controller.dispose();
+    if (seconds == null || !mounted) return;
+    
+    final result = await provider.updateConfig(setting.key, seconds * 1000);
+    if (!mounted) return;
+    ScaffoldMessenger.of(context).showSnackBar(
+      SnackBar(
+        content: Text(result ? '${setting.value} 설정이 변경되었습니다.' : '${setting.value} 설정 변경 실패'),
+        duration: const Duration(seconds: 2),
+      ),
+    );
+  }
+  
   @override
   Widget build(BuildContext context) {
     return Scaffold(
@@ -79,7 +173,7 @@ class _WatchdogHomePageState extends State<WatchdogHomePage> {
       body: Consumer<WatchdogProvider>(
         builder: (context, provider, child) {
           return Center(
-            child: Padding(
+            child: SingleChildScrollView(
               padding: const EdgeInsets.all(16.0),
               child: Column(
                 mainAxisAlignment: MainAxisAlignment.center,
@@ -152,6 +246,74 @@ class _WatchdogHomePageState extends State<WatchdogHomePage> {
                       ),
                     ),
                   ),
+                  const SizedBox(height: 16),
+                  Card(
+                    elevation: 4,
+                    child: Column(
+                      children: [
+                        const ListTile(
+                          title: Text('감시 설정'),
+                          subtitle: Text('항목을 눌러 변경 (서비스 재시작 없이 적용)'),
+                        ),
+                        for (final setting in _editableSettings)
+                          ListTile(
+                            dense: true,
+                            title: Text(setting.value),
+                            trailing: Text(
+                              provider.config[setting.key] is num
+                                  ? '${provider.config[setting.key] ~/ 1000}초'
+                                  : '-',
+                            ),
+                            onTap: () => _editSetting(provider, setting),
+                          ),
+                      ],
+                    ),
+                  ),
+                  const SizedBox(height: 16),
+                  Card(
+                    elevation: 4,
+                    child: Column(
+                      children: [
+                        ListTile(
+                          title: const Text('스케줄 실행 지연'),
+                          subtitle: Text('미러 항목 ${provider.scheduleStats['entries'] ?? 0}개, '
+                              '실행 ${provider.scheduleStats['count'] ?? 0}건'),
+                        ),
+                        ListTile(
+                          dense: true,
+                          title: const Text('평균 / 최대 / 마지막'),
+                          trailing: Text('${_formatMs(provider.scheduleStats['avgMs'])} / '
+                              '${_formatMs(provider.scheduleStats['maxMs'])} / '
+                              '${_formatMs(provider.scheduleStats['lastMs'])}'),
+                        ),
+                        ListTile(
+                          dense: true,
+                          title: const Text('앱 중단 중 대기 후 재생 / 폐기'),
+                          trailing: Text('${provider.scheduleStats['replayed'] ?? 0}건 / '
+                              '${provider.scheduleStats['dropped'] ?? 0}건'),
+                        ),
+                      ],
+                    ),
+                  ),
+                  const SizedBox(height: 16),
+                  Card(
+                    elevation: 4,
+                    child: Column(
+                      children: [
+                        ListTile(
+                          title: const Text('종료 사유별 복구'),
+                          subtitle: Text(_causeSummary(provider.recoveryStats['causes'])),
+                        ),
+                        for (final row in _strategyRows(provider.recoveryStats['strategies']))
+                          ListTile(
+                            dense: true,
+                            title: Text(_strategyNames[row.key]!),
+                            subtitle: Text('성공 ${row.value['successes']} / 시도 ${row.value['attempts']}'),
+                            trailing: Text('평균 ${_formatMs(row.value['avgRecoveryMs'])}'),
+                          ),
+                      ],
+                    ),
+                  ),
                   const SizedBox(height: 24),
                   ElevatedButton.icon(
                     onPressed: () async {
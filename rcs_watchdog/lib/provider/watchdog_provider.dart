@@ -3,6 +3,7 @@ import 'dart:developer' as developer;
 import 'package:flutter/material.dart';
 import 'package:flutter/services.dart';
 import 'package:shared_preferences/shared_preferences.dart';
+import '../service/watchdog_service.dart';
 
 /// 와치독 상태 관리 및 서비스 통신을 담당하는 Provider
 class WatchdogProvider extends ChangeNotifier {
@@ -14,6 +15,9 @@ class WatchdogProvider extends ChangeNotifier {
   bool _autoStartEnabled = true;
   String _lastCheckTime = '확인 중...';
   String _mainAppStatus = '확인 중...';
+  Map<String, dynamic> _config = {};
+  Map<String, dynamic> _scheduleStats = {};
+  Map<String, dynamic> _recoveryStats = {};
   Timer? _statusUpdateTimer;
   
   // 게터
@@ -21,6 +25,9 @@ class WatchdogProvider extends ChangeNotifier {
   bool get autoStartEnabled => _autoStartEnabled;
   String get lastCheckTime => _lastCheckTime;
   String get mainAppStatus => _mainAppStatus;
+  Map<String, dynamic> get config => _config;
+  Map<String, dynamic> get scheduleStats => _scheduleStats;
+  Map<String, dynamic> get recoveryStats => _recoveryStats;
   
   // 초기화
   WatchdogProvider() {
@@ -41,6 +48,8 @@ class WatchdogProvider extends ChangeNotifier {
   // Provider 초기화 및 상태 로드
   Future<void> _initializeProvider() async {
     await _loadWatchdogStatus();
+    await _loadConfig();
+    await _loadStats();
     _setupStatusUpdateTimer();
   }
   
@@ -69,6 +78,26 @@ class WatchdogProvider extends ChangeNotifier {
     }
   }
   
+  // 와치독 감시 설정 로드 (네이티브 설정 스냅샷)
+  Future<void> _loadConfig() async {
+    _config = await WatchdogService().getConfig();
+    notifyListeners();
+  }
+  
+  // 스케줄 실행 지연 통계와 복구 통계 로드
+  Future<void> _loadStats() async {
+    _scheduleStats = await WatchdogService().getScheduleSkewStats();
+    _recoveryStats = await WatchdogService().getRecoveryStats();
+    notifyListeners();
+  }
+  
+  // 와치독 감시 설정 변경 후 보정된 값으로 다시 로드
+  Future<bool> updateConfig(String key, dynamic value) async {
+    final result = await WatchdogService().updateConfig({key: value});
+    await _loadConfig();
+    return result;
+  }
+  
   // 메인 앱 상태 업데이트
   Future<void> _updateMainAppStatus() async {
     try {
@@ -170,5 +199,7 @@ class WatchdogProvider extends ChangeNotifier {
     notifyListeners();
     
     await _updateWatchdogStatus();
+    await _loadConfig();
+    await _loadStats();
   }
 } 
\ No newline at end of file
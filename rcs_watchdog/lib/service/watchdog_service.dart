@@ -180,6 +180,51 @@ class WatchdogService {
     }
   }
   
+  // 와치독 설정 조회
+  Future<Map<String, dynamic>> getConfig() async {
+    try {
+      final result = await _channel.invokeMethod('getConfig');
+      return Map<String, dynamic>.from(result ?? {});
+    } catch (e) {
+      developer.log('와치독 설정 조회 오류: $e', name: 'WatchdogService');
+      return {};
+    }
+  }
+  
+  // 와치독 설정 변경 (키: check_interval_ms, boot_delay_ms 등, 서비스 재시작 없이 적용)
+  Future<bool> updateConfig(Map<String, dynamic> values) async {
+    try {
+      final applied = await _channel.invokeMethod('updateConfig', values);
+      developer.log('와치독 설정 변경: $applied개 적용', name: 'WatchdogService');
+      return (applied ?? 0) > 0;
+    } catch (e) {
+      developer.log('와치독 설정 변경 오류: $e', name: 'WatchdogService');
+      return false;
+    }
+  }
+  
+  // 스케줄 실행 지연 통계 (count, avgMs, maxMs, lastMs, replayed, dropped, entries)
+  Future<Map<String, dynamic>> getScheduleSkewStats() async {
+    try {
+      final result = await _channel.invokeMethod('getScheduleSkewStats');
+      return Map<String, dynamic>.from(result ?? {});
+    } catch (e) {
+      developer.log('스케줄 지연 통계 조회 오류: $e', name: 'WatchdogService');
+      return {};
+    }
+  }
+  
+  // 종료 사유별 횟수와 복구 방법별 시도/성공/평균 소요 시간 (causes, strategies)
+  Future<Map<String, dynamic>> getRecoveryStats() async {
+    try {
+      final result = await _channel.invokeMethod('getRecoveryStats');
+      return Map<String, dynamic>.from(result ?? {});
+    } catch (e) {
+      developer.log('복구 통계 조회 오류: $e', name: 'WatchdogService');
+      return {};
+    }
+  }
+  
   // 서비스 상태 확인
   Future<bool> isServiceRunning() async {
     try {